@@ -0,0 +1,111 @@
+package com.telephonemanager.security;
+
+import com.telephonemanager.TelephoneManagerApplication;
+import com.telephonemanager.repository.UserRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of an authenticated request through the JWT filter with its former
+ * System.out logging ({@link LegacyJwtAuthenticationFilter}) versus the current
+ * sampled SLF4J logging behind the async appender of logback-spring.xml, both wired
+ * to the same JwtUtil and PrincipalCache of a running application context.
+ * Standard output is redirected to a temporary file, as a container log would be.
+ *
+ * Run with {@code mvn -P jmh test-compile exec:exec -Djmh.args="JwtFilterLogging"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class JwtFilterLoggingBenchmark {
+    private static final FilterChain END_OF_CHAIN = (request, response) -> { };
+
+    private PrintStream originalOut;
+    private Path stdoutFile;
+    private ConfigurableApplicationContext context;
+    private OncePerRequestFilter current;
+    private OncePerRequestFilter legacy;
+    private String bearer;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        originalOut = System.out;
+        stdoutFile = Files.createTempFile("jwt-filter-benchmark-", ".log");
+        System.setOut(new PrintStream(new BufferedOutputStream(new FileOutputStream(stdoutFile.toFile())), true));
+
+        context = SpringApplication.run(TelephoneManagerApplication.class,
+                "--spring.datasource.url=jdbc:h2:mem:filterbench;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa", "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--server.port=0");
+        current = context.getBean(JwtAuthenticationFilter.class);
+        legacy = new LegacyJwtAuthenticationFilter();
+        context.getAutowireCapableBeanFactory().autowireBean(legacy);
+
+        JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+        bearer = "Bearer " + jwtUtil.generateToken(
+                context.getBean(UserRepository.class).findByEmail("admin@company.com").orElseThrow());
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        System.out.close();
+        System.setOut(originalOut);
+        Files.deleteIfExists(stdoutFile);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse systemOut() throws ServletException, IOException {
+        return authenticate(legacy);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse sampledSlf4j() throws ServletException, IOException {
+        return authenticate(current);
+    }
+
+    private MockHttpServletResponse authenticate(OncePerRequestFilter filter) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/phones");
+        request.addHeader("Authorization", bearer);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, END_OF_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
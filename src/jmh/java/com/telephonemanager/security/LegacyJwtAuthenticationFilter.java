@@ -0,0 +1,114 @@
+package com.telephonemanager.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * JwtAuthenticationFilter as it was before its logging moved to SLF4J: about ten
+ * System.out lines per request. Kept only as the baseline of {@link JwtFilterLoggingBenchmark}.
+ */
+public class LegacyJwtAuthenticationFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Override
+    protected void doFilterInternal(@org.springframework.lang.NonNull HttpServletRequest request, 
+                                  @org.springframework.lang.NonNull HttpServletResponse response, 
+                                  @org.springframework.lang.NonNull FilterChain filterChain) throws ServletException, IOException {
+        
+        String requestURI = request.getRequestURI();
+        String method = request.getMethod();
+        
+        System.out.println("=== JWT FILTER: Processing request ===");
+        System.out.println("Method: " + method);
+        System.out.println("URI: " + requestURI);
+        
+        // Skip JWT processing for login endpoint, test endpoints, and WebSocket endpoints
+        if (requestURI.equals("/auth/login") || 
+            requestURI.startsWith("/ws") ||
+            requestURI.startsWith("/test") ||
+            requestURI.startsWith("/simple-test")) {
+            System.out.println("=== JWT FILTER: Skipping authentication for: " + requestURI);
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        final String authHeader = request.getHeader("Authorization");
+        
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            final String jwt = authHeader.substring(7);
+            final String userEmail = jwtUtil.extractUsername(jwt);
+            
+            System.out.println("=== JWT FILTER: Extracted email: " + userEmail);
+
+            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                PrincipalCache.CachedPrincipal user = principalCache.get(userEmail).orElse(null);
+                
+                System.out.println("=== JWT FILTER: User lookup result: " + (user != null ? "FOUND" : "NOT FOUND"));
+                if (user != null) {
+                    System.out.println("=== JWT FILTER: User ID: " + user.id());
+                    System.out.println("=== JWT FILTER: User email: " + user.email());
+                    System.out.println("=== JWT FILTER: User role: " + user.role());
+                    System.out.println("=== JWT FILTER: User status: " + user.status());
+                }
+                
+                boolean tokenValid = jwtUtil.validateToken(jwt);
+                System.out.println("=== JWT FILTER: Token validation result: " + tokenValid);
+                
+                if (user != null && user.isActive() && tokenValid) {
+                    String role = user.role().name();
+                    if (!role.startsWith("ROLE_")) {
+                        role = "ROLE_" + role;
+                    }
+                    System.out.println("=== JWT FILTER: Final role: " + role);
+                    
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        user.email(),
+                        null,
+                        Collections.singletonList(new SimpleGrantedAuthority(role))
+                    );
+                    
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    request.setAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE, user.id());
+                    System.out.println("=== JWT FILTER: Authentication set successfully");
+                } else {
+                    System.out.println("=== JWT FILTER: Authentication failed");
+                    if (user == null) {
+                        System.out.println("=== JWT FILTER: Reason: User not found in database");
+                    } else if (!user.isActive()) {
+                        System.out.println("=== JWT FILTER: Reason: User is not active");
+                    }
+                    if (!tokenValid) {
+                        System.out.println("=== JWT FILTER: Reason: Token validation failed");
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("=== JWT FILTER: Exception during authentication: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,70 @@
+package com.telephonemanager.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission cost of {@link RateLimiter} for a known caller and for a new caller while
+ * the map is full of active buckets. Time is passed in explicitly, so every bucket stays
+ * active for the whole run and no sweep is needed.
+ *
+ * Run with {@code mvn -P jmh test-compile exec:exec}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+    private static final long PERIOD_NANOS = TimeUnit.HOURS.toNanos(1);
+    private static final int NEW_KEYS = 1 << 16;
+
+    @Param({ "1000", "100000" })
+    private int maxKeys;
+
+    private RateLimiter limiter;
+    private String[] knownKeys;
+    private String[] newKeys;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        limiter = new RateLimiter(maxKeys);
+        knownKeys = new String[maxKeys];
+        for (int i = 0; i < maxKeys; i++) {
+            knownKeys[i] = "GENERAL|user-" + i;
+            limiter.tryAcquire(knownKeys[i], "GENERAL", 1, PERIOD_NANOS, 0);
+        }
+        newKeys = new String[NEW_KEYS];
+        for (int i = 0; i < NEW_KEYS; i++) {
+            newKeys[i] = "GENERAL|new-" + i;
+        }
+    }
+
+    @Benchmark
+    public long knownKey() {
+        String key = knownKeys[ThreadLocalRandom.current().nextInt(knownKeys.length)];
+        return limiter.tryAcquire(key, "GENERAL", Integer.MAX_VALUE, PERIOD_NANOS, 0);
+    }
+
+    @Benchmark
+    public long newKeyWhileFull() {
+        String key = newKeys[ThreadLocalRandom.current().nextInt(NEW_KEYS)];
+        return limiter.tryAcquire(key, "GENERAL", Integer.MAX_VALUE, PERIOD_NANOS, 0);
+    }
+}
@@ -0,0 +1,162 @@
+package com.telephonemanager.service;
+
+import com.telephonemanager.TelephoneManagerApplication;
+import com.telephonemanager.entity.Phone;
+import com.telephonemanager.entity.SimCard;
+import com.telephonemanager.entity.User;
+import com.telephonemanager.repository.PhoneRepository;
+import com.telephonemanager.repository.SimCardRepository;
+import com.telephonemanager.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Latency of the dashboard stats aggregation (status, brand, carrier, role and the
+ * three per-department queries) run one after another versus fanned out through
+ * {@link DashboardQueryExecutor}, against the application context on an in-memory H2
+ * database seeded with a fleet of realistic size.
+ *
+ * Run with {@code mvn -P jmh test-compile exec:exec -Djmh.args="DashboardAggregation"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardAggregationBenchmark {
+    private static final int USERS = 5_000;
+    private static final int PHONES = 20_000;
+    private static final int SIM_CARDS = 20_000;
+    private static final int SAVE_CHUNK = 1_000;
+    private static final String[] DEPARTMENTS = { "IT", "HR", "Sales", "Finance", "Operations", "Legal", "Marketing" };
+    private static final String[] BRANDS = { "Apple", "Samsung", "Google", "Xiaomi", "Nokia" };
+    private static final String[] CARRIERS = { "Orange", "SFR", "Bouygues", "Free" };
+
+    private ConfigurableApplicationContext context;
+    private InventoryAggregationService aggregationService;
+    private DashboardQueryExecutor queryExecutor;
+    private PhoneRepository phoneRepository;
+    private SimCardRepository simCardRepository;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SpringApplication.run(TelephoneManagerApplication.class,
+                "--spring.datasource.url=jdbc:h2:mem:bench;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa", "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=500",
+                "--server.port=0", "--logging.level.root=WARN");
+        aggregationService = context.getBean(InventoryAggregationService.class);
+        queryExecutor = context.getBean(DashboardQueryExecutor.class);
+        phoneRepository = context.getBean(PhoneRepository.class);
+        simCardRepository = context.getBean(SimCardRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public void sequential(Blackhole blackhole) {
+        blackhole.consume(aggregationService.aggregatePhones());
+        blackhole.consume(phoneRepository.findBrandDistribution());
+        blackhole.consume(aggregationService.aggregateSimCards());
+        blackhole.consume(simCardRepository.findCarrierDistribution());
+        blackhole.consume(aggregationService.aggregateUsers());
+        blackhole.consume(userRepository.aggregateByDepartment());
+        blackhole.consume(phoneRepository.aggregateAssignedByDepartment());
+        blackhole.consume(simCardRepository.aggregateAssignedByDepartment());
+    }
+
+    @Benchmark
+    public DashboardQueryExecutor.Batch fannedOut() {
+        return queryExecutor.newBatch()
+                .submit("phoneStatus", aggregationService::aggregatePhones)
+                .submit("brandDistribution", phoneRepository::findBrandDistribution)
+                .submit("simCardStatus", aggregationService::aggregateSimCards)
+                .submit("carrierDistribution", simCardRepository::findCarrierDistribution)
+                .submit("roleDistribution", aggregationService::aggregateUsers)
+                .submit("departmentUsers", userRepository::aggregateByDepartment)
+                .submit("departmentPhones", phoneRepository::aggregateAssignedByDepartment)
+                .submit("departmentSimCards", simCardRepository::aggregateAssignedByDepartment)
+                .await();
+    }
+
+    // Half of the phones and SIM cards are assigned, spread over every department
+    private void seed() {
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("Bench User " + i, "bench" + i + "@company.com", "x",
+                    DEPARTMENTS[i % DEPARTMENTS.length]);
+            user.setRole(i % 50 == 0 ? User.UserRole.ASSIGNER : User.UserRole.USER);
+            users.add(user);
+        }
+        users = saveInChunks(users, userRepository::saveAll);
+
+        List<Phone> phones = new ArrayList<>(PHONES);
+        for (int i = 0; i < PHONES; i++) {
+            Phone phone = new Phone();
+            phone.setBrand(BRANDS[i % BRANDS.length]);
+            phone.setModel("Model " + (i % 12));
+            phone.setImei1(String.format("35%013d", i));
+            phone.setImei2(String.format("36%013d", i));
+            phone.setSerialNumber("BENCH-" + i);
+            phone.setCondition(Phone.Condition.GOOD);
+            if (i % 2 == 0) {
+                phone.setStatus(Phone.Status.ASSIGNED);
+                phone.setAssignedTo(users.get(i % USERS));
+            }
+            phones.add(phone);
+        }
+        saveInChunks(phones, phoneRepository::saveAll);
+
+        List<SimCard> simCards = new ArrayList<>(SIM_CARDS);
+        for (int i = 0; i < SIM_CARDS; i++) {
+            SimCard simCard = new SimCard();
+            simCard.setNumber(String.format("+336%08d", i));
+            simCard.setIccid(String.format("8933%015d", i));
+            simCard.setPin("0000");
+            simCard.setPuk(String.format("%08d", i));
+            simCard.setPoke("0000");
+            simCard.setCarrier(CARRIERS[i % CARRIERS.length]);
+            if (i % 2 == 0) {
+                simCard.setStatus(SimCard.Status.ASSIGNED);
+                simCard.setAssignedTo(users.get(i % USERS));
+            }
+            simCards.add(simCard);
+        }
+        saveInChunks(simCards, simCardRepository::saveAll);
+    }
+
+    private static <T> List<T> saveInChunks(List<T> entities, Function<List<T>, List<T>> saveAll) {
+        List<T> saved = new ArrayList<>(entities.size());
+        for (int from = 0; from < entities.size(); from += SAVE_CHUNK) {
+            saved.addAll(saveAll.apply(entities.subList(from, Math.min(from + SAVE_CHUNK, entities.size()))));
+        }
+        return saved;
+    }
+}
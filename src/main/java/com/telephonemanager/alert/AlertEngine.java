@@ -0,0 +1,291 @@
+package com.telephonemanager.alert;
+
+import com.telephonemanager.dto.Alert;
+import com.telephonemanager.dto.DeviceHolding;
+import com.telephonemanager.entity.Phone;
+import com.telephonemanager.entity.SimCard;
+import com.telephonemanager.event.AlertChangedEvent;
+import com.telephonemanager.event.InventoryChangeEvent;
+import com.telephonemanager.repository.PhoneRepository;
+import com.telephonemanager.repository.SimCardRepository;
+import com.telephonemanager.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the set of active dashboard alerts up to date. Rules are re-evaluated only
+ * for the phone, SIM card or holder touched by each committed InventoryChangeEvent;
+ * a daily sweep rebuilds the store from each rule's candidates so that purely
+ * time-based conditions (days damaged, expiry, depreciation) are picked up.
+ * Active alerts and severity counters are served from memory.
+ * All evaluation and rebuilds run on one dedicated thread: committing requests only
+ * enqueue their event, and a rebuild fills a new store that replaces the old one whole.
+ * Changes are announced as AlertChangedEvent for the dashboard cache and push channel.
+ */
+@Service
+public class AlertEngine {
+    @Autowired
+    private List<AlertRule<?>> rules;
+    @Autowired
+    private PhoneRepository phoneRepository;
+    @Autowired
+    private SimCardRepository simCardRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ThreadPoolExecutor executor;
+    // Set when an event could not be queued; the worker then rebuilds instead
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    private volatile AlertStore store = new AlertStore();
+    private volatile boolean initialized = false;
+
+    public AlertEngine(@Value("${dashboard.alerts.queue-capacity:10000}") int queueCapacity) {
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "alert-engine");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public List<Alert> getActiveAlerts() {
+        ensureInitialized();
+        List<Alert> alerts = new ArrayList<>(store.alerts.values());
+        alerts.sort(Comparator.comparing(Alert::getSeverity));
+        return alerts;
+    }
+
+    public long getTotalCount() {
+        ensureInitialized();
+        return store.alerts.size();
+    }
+
+    public long getCount(Alert.Severity severity) {
+        ensureInitialized();
+        return store.severityCounts.get(severity).get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        submit(this::rebuild);
+    }
+
+    @Scheduled(cron = "${dashboard.alerts.sweep-cron:0 0 1 * * *}")
+    public void scheduledSweep() {
+        submit(this::rebuild);
+    }
+
+    // Runs on the engine thread only
+    private void rebuild() {
+        rebuildRequested.set(false);
+        try {
+            LocalDate today = LocalDate.now();
+            AlertStore rebuilt = new AlertStore();
+            for (AlertRule<?> rule : rules) {
+                collect(rule, today, rebuilt);
+            }
+            store = rebuilt;
+            initialized = true;
+            System.out.println("Alert store rebuilt: " + rebuilt.alerts.size() + " active alerts");
+            eventPublisher.publishEvent(AlertChangedEvent.storeRebuilt());
+        } catch (Exception e) {
+            System.err.println("Alert store rebuild failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queued even before the first rebuild: the engine thread runs tasks in order, so a
+     * change committed while the rebuild scans is evaluated after it and never lost.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        switch (event.getItemType()) {
+            case PHONE:
+            case SIM:
+            case USER:
+                if (!submit(() -> evaluateChange(event))) {
+                    rebuildRequested.set(true);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Runs on the engine thread only
+    private void evaluateChange(InventoryChangeEvent event) {
+        if (rebuildRequested.get()) {
+            rebuild();
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            switch (event.getItemType()) {
+                case PHONE:
+                    Phone phone = event.getAfter() != null
+                            ? phoneRepository.findById(event.getItemId()).orElse(null) : null;
+                    evaluate(Phone.class, event.getItemId(), phone, today);
+                    reevaluateHolders(event, today);
+                    break;
+                case SIM:
+                    SimCard sim = event.getAfter() != null
+                            ? simCardRepository.findById(event.getItemId()).orElse(null) : null;
+                    evaluate(SimCard.class, event.getItemId(), sim, today);
+                    reevaluateHolders(event, today);
+                    break;
+                case USER:
+                    evaluateHolder(event.getItemId(), today);
+                    break;
+                default:
+                    break;
+            }
+        } catch (Exception e) {
+            System.err.println("Alert evaluation failed for " + event.getItemType() + " "
+                    + event.getItemId() + ": " + e.getMessage());
+        }
+    }
+
+    private void reevaluateHolders(InventoryChangeEvent event, LocalDate today) {
+        Long oldOwner = event.getBefore() != null ? event.getBefore().getOwnerId() : null;
+        Long newOwner = event.getAfter() != null ? event.getAfter().getOwnerId() : null;
+        if (oldOwner != null) {
+            evaluateHolder(oldOwner, today);
+        }
+        if (newOwner != null && !newOwner.equals(oldOwner)) {
+            evaluateHolder(newOwner, today);
+        }
+    }
+
+    private void evaluateHolder(Long userId, LocalDate today) {
+        DeviceHolding holding = userRepository.findById(userId)
+                .map(user -> new DeviceHolding(user.getId(), user.getName(),
+                        phoneRepository.countByAssignedToId(userId) + simCardRepository.countByAssignedToId(userId)))
+                .orElse(null);
+        evaluate(DeviceHolding.class, userId, holding, today);
+    }
+
+    /** Re-evaluates every rule targeting the item's type; a null item clears its alerts. */
+    @SuppressWarnings("unchecked")
+    private <T> void evaluate(Class<T> targetType, Long itemId, T item, LocalDate today) {
+        for (AlertRule<?> rule : rules) {
+            if (rule.getTargetType() != targetType) {
+                continue;
+            }
+            String key = rule.getType() + ":" + itemId;
+            Alert alert = item != null ? ((AlertRule<T>) rule).evaluate(item, today).orElse(null) : null;
+            if (alert != null) {
+                Alert previous = store.put(key, alert);
+                if (!sameAlert(previous, alert)) {
+                    eventPublisher.publishEvent(new AlertChangedEvent(alert, true));
+                }
+            } else {
+                Alert previous = store.remove(key);
+                if (previous != null) {
+                    eventPublisher.publishEvent(new AlertChangedEvent(previous, false));
+                }
+            }
+        }
+    }
+
+    private <T> void collect(AlertRule<T> rule, LocalDate today, AlertStore into) {
+        for (T candidate : rule.findCandidates(today)) {
+            rule.evaluate(candidate, today)
+                    .ifPresent(alert -> into.put(rule.getType() + ":" + alert.getItemId(), alert));
+        }
+    }
+
+    private static boolean sameAlert(Alert previous, Alert current) {
+        return previous != null && previous.getType().equals(current.getType())
+                && previous.getSeverity() == current.getSeverity()
+                && Objects.equals(previous.getMessage(), current.getMessage());
+    }
+
+    private void ensureInitialized() {
+        if (!initialized) {
+            try {
+                executor.submit(() -> {
+                    if (!initialized) {
+                        rebuild();
+                    }
+                }).get(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException | RejectedExecutionException e) {
+                System.err.println("Alert store not ready: " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean submit(Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            System.err.println("Alert engine queue full; a full rebuild will follow");
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Active alerts keyed by rule type and item id, with per-severity counters. */
+    private static class AlertStore {
+        final Map<String, Alert> alerts = new ConcurrentHashMap<>();
+        final Map<Alert.Severity, AtomicLong> severityCounts = new EnumMap<>(Alert.Severity.class);
+
+        AlertStore() {
+            for (Alert.Severity severity : Alert.Severity.values()) {
+                severityCounts.put(severity, new AtomicLong());
+            }
+        }
+
+        Alert put(String key, Alert alert) {
+            Alert previous = alerts.put(key, alert);
+            if (previous != null) {
+                severityCounts.get(previous.getSeverity()).decrementAndGet();
+            }
+            severityCounts.get(alert.getSeverity()).incrementAndGet();
+            return previous;
+        }
+
+        Alert remove(String key) {
+            Alert previous = alerts.remove(key);
+            if (previous != null) {
+                severityCounts.get(previous.getSeverity()).decrementAndGet();
+            }
+            return previous;
+        }
+    }
+}
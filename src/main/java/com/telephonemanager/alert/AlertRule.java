@@ -0,0 +1,24 @@
+package com.telephonemanager.alert;
+
+import com.telephonemanager.dto.Alert;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A dashboard alert condition over one kind of item (Phone, SimCard or DeviceHolding).
+ * Rules are evaluated per item whenever that item changes, and against their
+ * candidate set during the daily sweep for conditions that depend on elapsed time.
+ */
+public interface AlertRule<T> {
+    /** Unique rule key; at most one alert per rule and item is active. */
+    String getType();
+
+    Class<T> getTargetType();
+
+    /** Items that may currently match, used to rebuild the alert store. */
+    List<T> findCandidates(LocalDate today);
+
+    Optional<Alert> evaluate(T item, LocalDate today);
+}
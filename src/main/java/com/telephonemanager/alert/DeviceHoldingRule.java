@@ -0,0 +1,62 @@
+package com.telephonemanager.alert;
+
+import com.telephonemanager.dto.Alert;
+import com.telephonemanager.dto.DeviceHolding;
+import com.telephonemanager.repository.PhoneRepository;
+import com.telephonemanager.repository.SimCardRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Users holding more phones and SIM cards combined than the configured maximum.
+ */
+@Component
+public class DeviceHoldingRule implements AlertRule<DeviceHolding> {
+    @Autowired
+    private PhoneRepository phoneRepository;
+    @Autowired
+    private SimCardRepository simCardRepository;
+
+    @Value("${dashboard.alerts.max-devices-per-user:2}")
+    private int maxDevices;
+
+    @Override
+    public String getType() {
+        return "TOO_MANY_DEVICES";
+    }
+
+    @Override
+    public Class<DeviceHolding> getTargetType() {
+        return DeviceHolding.class;
+    }
+
+    @Override
+    public List<DeviceHolding> findCandidates(LocalDate today) {
+        Map<Long, DeviceHolding> byUser = new LinkedHashMap<>();
+        for (DeviceHolding holding : phoneRepository.countDevicesByHolder()) {
+            byUser.merge(holding.getUserId(), holding, DeviceHolding::plus);
+        }
+        for (DeviceHolding holding : simCardRepository.countDevicesByHolder()) {
+            byUser.merge(holding.getUserId(), holding, DeviceHolding::plus);
+        }
+        return new ArrayList<>(byUser.values());
+    }
+
+    @Override
+    public Optional<Alert> evaluate(DeviceHolding holding, LocalDate today) {
+        if (holding.getDevices() <= maxDevices) {
+            return Optional.empty();
+        }
+        return Optional.of(new Alert(getType(), Alert.Severity.HIGH, "USER", holding.getUserId(),
+                holding.getUserName(),
+                "User holds " + holding.getDevices() + " devices (maximum " + maxDevices + ")"));
+    }
+}
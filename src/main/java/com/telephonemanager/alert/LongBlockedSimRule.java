@@ -0,0 +1,46 @@
+package com.telephonemanager.alert;
+
+import com.telephonemanager.dto.Alert;
+import com.telephonemanager.entity.SimCard;
+import com.telephonemanager.repository.SimCardRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class LongBlockedSimRule implements AlertRule<SimCard> {
+    @Autowired
+    private SimCardRepository simCardRepository;
+
+    @Value("${dashboard.alerts.blocked-days:30}")
+    private int blockedDays;
+
+    @Override
+    public String getType() {
+        return "LONG_BLOCKED_SIM";
+    }
+
+    @Override
+    public Class<SimCard> getTargetType() {
+        return SimCard.class;
+    }
+
+    @Override
+    public List<SimCard> findCandidates(LocalDate today) {
+        return simCardRepository.findByStatusAndAssignedDateBefore(SimCard.Status.BLOCKED, today.minusDays(blockedDays));
+    }
+
+    @Override
+    public Optional<Alert> evaluate(SimCard sim, LocalDate today) {
+        if (sim.getStatus() != SimCard.Status.BLOCKED || sim.getAssignedDate() == null
+                || !sim.getAssignedDate().isBefore(today.minusDays(blockedDays))) {
+            return Optional.empty();
+        }
+        return Optional.of(new Alert(getType(), Alert.Severity.MEDIUM, "SIM", sim.getId(), sim.getNumber(),
+                "SIM card in blocked status for more than " + blockedDays + " days"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.telephonemanager.alert;
+
+import com.telephonemanager.dto.Alert;
+import com.telephonemanager.entity.Phone;
+import com.telephonemanager.repository.PhoneRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class LongDamagedPhoneRule implements AlertRule<Phone> {
+    @Autowired
+    private PhoneRepository phoneRepository;
+
+    @Value("${dashboard.alerts.damaged-days:30}")
+    private int damagedDays;
+
+    @Override
+    public String getType() {
+        return "LONG_DAMAGED_PHONE";
+    }
+
+    @Override
+    public Class<Phone> getTargetType() {
+        return Phone.class;
+    }
+
+    @Override
+    public List<Phone> findCandidates(LocalDate today) {
+        return phoneRepository.findByStatusAndAssignedDateBefore(Phone.Status.DAMAGED, today.minusDays(damagedDays));
+    }
+
+    @Override
+    public Optional<Alert> evaluate(Phone phone, LocalDate today) {
+        if (phone.getStatus() != Phone.Status.DAMAGED || phone.getAssignedDate() == null
+                || !phone.getAssignedDate().isBefore(today.minusDays(damagedDays))) {
+            return Optional.empty();
+        }
+        return Optional.of(new Alert(getType(), Alert.Severity.MEDIUM, "PHONE", phone.getId(),
+                phone.getBrand() + " " + phone.getModel(),
+                "Phone in damaged status for more than " + damagedDays + " days"));
+    }
+}
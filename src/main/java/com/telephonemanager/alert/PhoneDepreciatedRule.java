@@ -0,0 +1,54 @@
+package com.telephonemanager.alert;
+
+import com.telephonemanager.dto.Alert;
+import com.telephonemanager.entity.Phone;
+import com.telephonemanager.repository.PhoneRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Assigned phones whose remaining value has reached zero, using the same
+ * 24-month straight-line depreciation as PhoneService.calculateRemainingValue.
+ */
+@Component
+public class PhoneDepreciatedRule implements AlertRule<Phone> {
+    private static final int DEPRECIATION_MONTHS = 24;
+
+    @Autowired
+    private PhoneRepository phoneRepository;
+
+    @Override
+    public String getType() {
+        return "PHONE_FULLY_DEPRECIATED";
+    }
+
+    @Override
+    public Class<Phone> getTargetType() {
+        return Phone.class;
+    }
+
+    @Override
+    public List<Phone> findCandidates(LocalDate today) {
+        return phoneRepository.findByAssignedToIsNotNullAndAssignedDateBefore(
+                today.withDayOfMonth(1).minusMonths(DEPRECIATION_MONTHS - 1));
+    }
+
+    @Override
+    public Optional<Alert> evaluate(Phone phone, LocalDate today) {
+        if (phone.getAssignedTo() == null || phone.getAssignedDate() == null) {
+            return Optional.empty();
+        }
+        long monthsUsed = ChronoUnit.MONTHS.between(phone.getAssignedDate().withDayOfMonth(1), today.withDayOfMonth(1));
+        if (monthsUsed < DEPRECIATION_MONTHS) {
+            return Optional.empty();
+        }
+        return Optional.of(new Alert(getType(), Alert.Severity.LOW, "PHONE", phone.getId(),
+                phone.getBrand() + " " + phone.getModel(),
+                "Phone fully depreciated after " + monthsUsed + " months in use"));
+    }
+}
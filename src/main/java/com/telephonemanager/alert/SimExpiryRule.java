@@ -0,0 +1,50 @@
+package com.telephonemanager.alert;
+
+import com.telephonemanager.dto.Alert;
+import com.telephonemanager.entity.SimCard;
+import com.telephonemanager.repository.SimCardRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class SimExpiryRule implements AlertRule<SimCard> {
+    @Autowired
+    private SimCardRepository simCardRepository;
+
+    @Value("${dashboard.alerts.sim-expiry-warning-days:30}")
+    private int warningDays;
+
+    @Override
+    public String getType() {
+        return "SIM_EXPIRY";
+    }
+
+    @Override
+    public Class<SimCard> getTargetType() {
+        return SimCard.class;
+    }
+
+    @Override
+    public List<SimCard> findCandidates(LocalDate today) {
+        return simCardRepository.findByExpiryDateBefore(today.plusDays(warningDays + 1));
+    }
+
+    @Override
+    public Optional<Alert> evaluate(SimCard sim, LocalDate today) {
+        LocalDate expiryDate = sim.getExpiryDate();
+        if (expiryDate == null || expiryDate.isAfter(today.plusDays(warningDays))) {
+            return Optional.empty();
+        }
+        if (expiryDate.isBefore(today)) {
+            return Optional.of(new Alert("SIM_EXPIRED", Alert.Severity.HIGH, "SIM", sim.getId(), sim.getNumber(),
+                    "SIM card expired on " + expiryDate));
+        }
+        return Optional.of(new Alert("SIM_EXPIRING", Alert.Severity.MEDIUM, "SIM", sim.getId(), sim.getNumber(),
+                "SIM card expires on " + expiryDate));
+    }
+}
@@ -0,0 +1,111 @@
+package com.telephonemanager.audit;
+
+import com.telephonemanager.entity.AuditLog;
+import com.telephonemanager.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records every mutating controller call (POST, PUT, PATCH, DELETE) once the response
+ * status is known. The entry is handed to AuditLogWriter, so the request never waits
+ * on an insert.
+ */
+@Component
+public class AuditInterceptor implements HandlerInterceptor {
+    private static final Set<String> AUDITED_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final String START_ATTRIBUTE = AuditInterceptor.class.getName() + ".start";
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Error dispatches re-enter with the original request; it is audited once
+        if (request.getDispatcherType() == DispatcherType.REQUEST && AUDITED_METHODS.contains(request.getMethod())) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null || request.getDispatcherType() != DispatcherType.REQUEST
+                || !(handler instanceof HandlerMethod)) {
+            return;
+        }
+        String[] segments = patternSegments(request);
+
+        AuditLog entry = new AuditLog();
+        entry.setOccurredAt(LocalDateTime.now());
+        entry.setHttpMethod(request.getMethod());
+        entry.setPath(request.getRequestURI());
+        entry.setStatusCode(response.getStatus());
+        entry.setIpAddress(request.getRemoteAddr());
+        entry.setDurationMs((System.nanoTime() - (Long) start) / 1_000_000);
+        entry.setEntityType(segments.length > 0 ? segments[0] : null);
+        entry.setEntityId(entityId(request));
+        entry.setAction(action(request.getMethod(), segments));
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            entry.setUserEmail(authentication.getName());
+        }
+        if (request.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE) instanceof Long userId) {
+            entry.setUserId(userId);
+        }
+        if (ex != null) {
+            entry.setDetails(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+        }
+        auditLogWriter.submit(entry);
+    }
+
+    private static String[] patternSegments(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String path = pattern != null ? pattern.toString() : request.getServletPath();
+        return path.replaceAll("^/+", "").split("/+");
+    }
+
+    /**
+     * A trailing literal names the operation (/phones/{id}/assign, /auth/login);
+     * plain resource paths fall back to the HTTP verb.
+     */
+    private static String action(String method, String[] segments) {
+        String last = segments[segments.length - 1];
+        if (segments.length > 1 && !last.startsWith("{")) {
+            return last.replace('-', '_').toUpperCase(Locale.ROOT);
+        }
+        return switch (method) {
+            case "POST" -> "CREATE";
+            case "DELETE" -> "DELETE";
+            default -> "UPDATE";
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long entityId(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map<?, ?> map) {
+            String id = ((Map<String, String>) map).get("id");
+            if (id != null && id.matches("\\d{1,18}")) {
+                return Long.valueOf(id);
+            }
+        }
+        return null;
+    }
+}
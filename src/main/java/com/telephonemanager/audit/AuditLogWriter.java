@@ -0,0 +1,376 @@
+package com.telephonemanager.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telephonemanager.entity.AuditLog;
+import com.telephonemanager.service.AuditLogRollupService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes audit entries off the request path. Request threads append to a lock-free
+ * queue bounded by a CAS-reserved depth counter; a single background thread drains it
+ * in batched JDBC inserts, one transaction per batch, every flush interval or as soon
+ * as a full batch is waiting.
+ * <p>
+ * Entries that cannot be queued (queue full) or written (database unavailable) are
+ * appended to a local JSON-lines spill file and forced to disk, so they survive a
+ * crash. The spill is replayed on startup and after every flush that succeeds.
+ * Each batch also updates the hourly rollup behind the audit summary.
+ */
+@Component
+public class AuditLogWriter {
+    private static final String INSERT_SQL = "INSERT INTO audit_logs (occurred_at, user_id, user_email, action, " +
+            "entity_type, entity_id, http_method, path, status_code, ip_address, duration_ms, details) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int MAX_PATH = 512;
+    private static final int MAX_DETAILS = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private AuditLogRollupService auditLogRollupService;
+
+    private final TransactionTemplate transaction;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final Path spillFile;
+    // Spill taken over for replay; new spills keep going to spillFile meanwhile
+    private final Path replayFile;
+    // Unreplayed tail of replayFile, written in full before it replaces it
+    private final Path replayTailFile;
+    private final Object spillLock = new Object();
+
+    private final ConcurrentLinkedQueue<AuditLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong lastFlushMillis = new AtomicLong();
+    private final AtomicReference<LocalDateTime> lastFlushAt = new AtomicReference<>();
+
+    public AuditLogWriter(PlatformTransactionManager transactionManager,
+            @Value("${audit.writer.capacity:10000}") int capacity,
+            @Value("${audit.writer.batch-size:200}") int batchSize,
+            @Value("${audit.writer.flush-interval:1000}") long flushIntervalMillis,
+            @Value("${audit.writer.spill-directory:${java.io.tmpdir}/telephone-manager-audit}") String spillDirectory)
+            throws IOException {
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        Path directory = Files.createDirectories(Paths.get(spillDirectory));
+        this.spillFile = directory.resolve("audit-spill.jsonl");
+        this.replayFile = directory.resolve("audit-spill.replay.jsonl");
+        this.replayTailFile = directory.resolve("audit-spill.replay.tmp");
+        this.flusher = new Thread(this::runFlusher, "audit-writer");
+        this.flusher.setDaemon(true);
+    }
+
+    // The audit_logs table exists once the context is up
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        flusher.start();
+    }
+
+    /**
+     * Queues one entry without blocking. When the queue is full the entry is spilled
+     * to disk on the calling thread, which slows producers down instead of growing
+     * memory or losing the entry.
+     */
+    public void submit(AuditLog entry) {
+        int current;
+        do {
+            current = depth.get();
+            if (current >= capacity) {
+                spill(List.of(entry));
+                return;
+            }
+        } while (!depth.compareAndSet(current, current + 1));
+        queue.offer(entry);
+        enqueued.incrementAndGet();
+        if (current + 1 >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("queueDepth", depth.get());
+        metrics.put("queueCapacity", capacity);
+        metrics.put("enqueued", enqueued.get());
+        metrics.put("written", written.get());
+        metrics.put("batches", batches.get());
+        metrics.put("spilled", spilled.get());
+        metrics.put("replayed", replayed.get());
+        metrics.put("dropped", dropped.get());
+        metrics.put("failedFlushes", failedFlushes.get());
+        metrics.put("lastFlushMillis", lastFlushMillis.get());
+        metrics.put("lastFlushAt", lastFlushAt.get());
+        metrics.put("pendingSpillBytes", sizeOf(spillFile) + sizeOf(replayFile));
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever is still queued is written now or spilled for the next start
+        drain();
+    }
+
+    private void runFlusher() {
+        try {
+            auditLogRollupService.backfillIfEmpty();
+        } catch (RuntimeException e) {
+            System.err.println("Audit log rollup backfill failed: " + e.getMessage());
+        }
+        while (running) {
+            if (drain()) {
+                replaySpill();
+            }
+            if (depth.get() < batchSize) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis));
+            }
+        }
+    }
+
+    /**
+     * Empties the queue in batches. After the first failed batch the database is
+     * assumed down for this round and the rest goes straight to the spill file.
+     */
+    private boolean drain() {
+        boolean healthy = true;
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        AuditLog entry;
+        while ((entry = queue.poll()) != null) {
+            depth.decrementAndGet();
+            batch.add(entry);
+            if (batch.size() == batchSize) {
+                healthy = healthy ? flush(batch) : spill(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            healthy = healthy ? flush(batch) : spill(batch);
+        }
+        return healthy;
+    }
+
+    private boolean flush(List<AuditLog> batch) {
+        try {
+            insert(batch);
+            written.addAndGet(batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            failedFlushes.incrementAndGet();
+            System.err.println("Audit log flush of " + batch.size() + " entries failed: " + e.getMessage());
+            spill(batch);
+            return false;
+        }
+    }
+
+    private void insert(List<AuditLog> batch) {
+        long started = System.nanoTime();
+        // One transaction per batch so a failed batch leaves no partial rows behind to duplicate on replay,
+        // and the hourly rollup always matches the rows it counts
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, log) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(log.getOccurredAt()));
+                ps.setObject(2, log.getUserId(), Types.BIGINT);
+                ps.setString(3, log.getUserEmail());
+                ps.setString(4, log.getAction());
+                ps.setString(5, log.getEntityType());
+                ps.setObject(6, log.getEntityId(), Types.BIGINT);
+                ps.setString(7, log.getHttpMethod());
+                ps.setString(8, truncate(log.getPath(), MAX_PATH));
+                ps.setInt(9, log.getStatusCode());
+                ps.setString(10, log.getIpAddress());
+                ps.setLong(11, log.getDurationMs());
+                ps.setString(12, truncate(log.getDetails(), MAX_DETAILS));
+            });
+            auditLogRollupService.apply(batch);
+        });
+        batches.incrementAndGet();
+        lastFlushMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        lastFlushAt.set(LocalDateTime.now());
+    }
+
+    /**
+     * Appends entries as JSON lines and forces them to disk before returning.
+     * Returns false so callers can chain it as a failed flush.
+     */
+    private boolean spill(List<AuditLog> entries) {
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream();
+            for (AuditLog entry : entries) {
+                objectMapper.writeValue(lines, entry);
+                lines.write('\n');
+            }
+            synchronized (spillLock) {
+                try (FileChannel channel = FileChannel.open(spillFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                }
+            }
+            spilled.addAndGet(entries.size());
+        } catch (IOException e) {
+            dropped.addAndGet(entries.size());
+            System.err.println("Audit log spill failed, " + entries.size() + " entries lost: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Moves the spill file aside and writes it back in batches. If the database fails
+     * again, reading stops there: the failed batch and the unread rest of the file are
+     * streamed into a new replay file that is retried first on a later round.
+     */
+    private void replaySpill() {
+        try {
+            if (!Files.exists(replayFile)) {
+                synchronized (spillLock) {
+                    if (!Files.exists(spillFile)) {
+                        return;
+                    }
+                    Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            boolean interrupted = false;
+            List<AuditLog> batch = new ArrayList<>(batchSize);
+            try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+                String line;
+                while (!interrupted && (line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    AuditLog entry;
+                    try {
+                        entry = objectMapper.readValue(line, AuditLog.class);
+                    } catch (IOException e) {
+                        // A torn last line from a crash mid-append
+                        dropped.incrementAndGet();
+                        System.err.println("Skipping unreadable audit spill entry: " + e.getMessage());
+                        continue;
+                    }
+                    batch.add(entry);
+                    if (batch.size() == batchSize) {
+                        interrupted = !replayBatch(batch);
+                        if (!interrupted) {
+                            batch = new ArrayList<>(batchSize);
+                        }
+                    }
+                }
+                if (!interrupted && !batch.isEmpty()) {
+                    interrupted = !replayBatch(batch);
+                }
+                if (interrupted) {
+                    writeReplayTail(batch, reader);
+                }
+            }
+            if (interrupted) {
+                Files.move(replayTailFile, replayFile, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.delete(replayFile);
+            }
+        } catch (IOException e) {
+            System.err.println("Audit log spill replay failed: " + e.getMessage());
+        }
+    }
+
+    private boolean replayBatch(List<AuditLog> batch) {
+        try {
+            insert(batch);
+            written.addAndGet(batch.size());
+            replayed.addAndGet(batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            failedFlushes.incrementAndGet();
+            System.err.println("Audit log spill replay interrupted: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Writes the failed batch followed by whatever the reader has not consumed yet,
+     * copied through without parsing, and forces it to disk before it replaces the replay file.
+     */
+    private void writeReplayTail(List<AuditLog> batch, BufferedReader reader) throws IOException {
+        try (FileChannel channel = FileChannel.open(replayTailFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+            for (AuditLog entry : batch) {
+                writer.write(objectMapper.writeValueAsString(entry));
+                writer.write('\n');
+            }
+            reader.transferTo(writer);
+            writer.flush();
+            channel.force(false);
+        }
+    }
+
+    private static String truncate(String value, int max) {
+        return value != null && value.length() > max ? value.substring(0, max) : value;
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.exists(file) ? Files.size(file) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.telephonemanager.config;
 
 import com.telephonemanager.security.JwtAuthenticationFilter;
+import com.telephonemanager.security.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -25,13 +29,17 @@ import java.util.Arrays;
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
 
     @Autowired
     private JwtAuthenticationFilter jwtAuthFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
-        System.out.println("=== SECURITY CONFIG: Building filter chain ===");
+        log.debug("Building security filter chain");
 
         http
                 .cors().configurationSource(corsConfigurationSource())
@@ -40,6 +48,8 @@ public class SecurityConfig {
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
                 .authorizeHttpRequests()
+                // Streamed responses complete on an async dispatch of an already authorized request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 .requestMatchers("/auth/login").permitAll()
                 .requestMatchers(
@@ -49,6 +59,7 @@ public class SecurityConfig {
                         "/v3/api-docs/**")
                 .permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
+                .requestMatchers("/ws/**").permitAll()
                 .requestMatchers("/api/ws/**").permitAll()
                 .requestMatchers("/api/test/**").permitAll()
                 .requestMatchers("/api/simple-test/**").permitAll()
@@ -61,10 +72,10 @@ public class SecurityConfig {
                 .requestMatchers("/chat/**").authenticated()
                 .anyRequest().authenticated()
                 .and()
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
 
-        System.out.println("=== SECURITY CONFIG: Filter chain built successfully ===");
-        System.out.println("Permitted paths: /auth/login, /api/ws/**, /api/test/**, /api/simple-test/**");
+        log.info("Security filter chain built; permitted paths: /auth/login, /ws/**, /api/ws/**, /api/test/**, /api/simple-test/**");
 
         return http.build();
     }
@@ -80,7 +91,7 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-Export-Change-Token", "X-Export-Snapshot-Isolation", "Retry-After"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -1,11 +1,15 @@
 package com.telephonemanager.controller;
 
 import com.telephonemanager.dto.AssignmentHistoryDto;
+import com.telephonemanager.entity.AssignmentHistory;
+import com.telephonemanager.service.ActivityFeedService;
+import com.telephonemanager.service.AssignmentHistoryRollupService;
 import com.telephonemanager.service.AssignmentHistoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -18,6 +22,10 @@ import java.util.Map;
 public class AssignmentHistoryController {
     @Autowired
     private AssignmentHistoryService historyService;
+    @Autowired
+    private AssignmentHistoryRollupService rollupService;
+    @Autowired
+    private ActivityFeedService activityFeedService;
 
     @GetMapping("/phone/{phoneId}")
     @Operation(summary = "Get phone assignment history", description = "Get assignment/transfer history for a phone")
@@ -48,4 +56,44 @@ public class AssignmentHistoryController {
         response.put("data", history);
         return ResponseEntity.ok(response);
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/feed")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ASSIGNER')")
+    @Operation(summary = "Get activity feed", description = "Get assignment history newest first, filtered by type, action or user and paginated with an opaque cursor (Admin/Assigner only)")
+    public ResponseEntity<Map<String, Object>> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) AssignmentHistory.Type type,
+            @RequestParam(required = false) AssignmentHistory.Action action,
+            @RequestParam(required = false) Long userId) {
+        try {
+            if (limit < 1 || limit > 100) {
+                throw new IllegalArgumentException("limit must be between 1 and 100");
+            }
+            Map<String, Object> feed = activityFeedService.getFeed(cursor, limit, type, action, userId);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", feed);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", Map.of(
+                "code", "FEED_ERROR",
+                "message", e.getMessage()
+            ));
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PostMapping("/rollup/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild monthly rollup", description = "Rebuild the monthly assignment history rollup from the full history (Admin only)")
+    public ResponseEntity<Map<String, Object>> rebuildRollup() {
+        int rows = rollupService.rebuild();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", Map.of("rollupRows", rows));
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,12 +1,20 @@
 package com.telephonemanager.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telephonemanager.audit.AuditLogWriter;
+import com.telephonemanager.entity.AuditLog;
 import com.telephonemanager.service.AuditLogService;
+import com.telephonemanager.service.ExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -17,6 +25,12 @@ import java.util.Map;
 public class AuditLogController {
     @Autowired
     private AuditLogService auditLogService;
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -120,21 +134,16 @@ public class AuditLogController {
 
     @GetMapping("/export")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Export audit logs", description = "Export audit logs to CSV format (Admin only)")
-    public ResponseEntity<Map<String, Object>> exportAuditLogs(
+    @Operation(summary = "Export audit logs", description = "Stream filtered audit logs as CSV or Excel (Admin only)")
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
             @RequestParam(required = false) String action,
-            @RequestParam(required = false) String entityType) {
+            @RequestParam(required = false) String entityType,
+            @RequestParam(defaultValue = "csv") String format) {
+        Specification<AuditLog> filter;
         try {
-            String csvData = auditLogService.exportAuditLogs(startDate, endDate, action, entityType);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", Map.of(
-                "csvData", csvData,
-                "filename", "audit_logs_" + System.currentTimeMillis() + ".csv"
-            ));
-            return ResponseEntity.ok(response);
+            filter = auditLogService.exportFilter(startDate, endDate, action, entityType);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
@@ -142,7 +151,27 @@ public class AuditLogController {
                 "code", "EXPORT_ERROR",
                 "message", e.getMessage()
             ));
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, response));
         }
+        boolean excel = "excel".equalsIgnoreCase(format);
+        StreamingResponseBody stream = out -> exportService.exportAuditLogs(filter, format, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=audit_logs_" + System.currentTimeMillis() + (excel ? ".xlsx" : ".csv"))
+                .contentType(MediaType.parseMediaType(excel
+                        ? "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet" : "text/csv"))
+                .body(stream);
+    }
+
+    @GetMapping("/writer-metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get audit writer metrics", description = "Queue depth, flush and spill counters of the audit log writer (Admin only)")
+    public ResponseEntity<Map<String, Object>> getWriterMetrics() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", auditLogWriter.getMetrics());
+        return ResponseEntity.ok(response);
     }
-} 
\ No newline at end of file
+}
@@ -4,10 +4,13 @@ import com.telephonemanager.dto.LoginRequest;
 import com.telephonemanager.dto.LoginResponse;
 import com.telephonemanager.entity.User;
 import com.telephonemanager.service.AuthService;
+import com.telephonemanager.service.LoginVerificationExecutor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -29,6 +32,12 @@ public class AuthController {
         try {
             LoginResponse response = authService.login(loginRequest);
             return ResponseEntity.ok(response);
+        } catch (LoginVerificationExecutor.BusyException e) {
+            LoginResponse errorResponse = new LoginResponse();
+            errorResponse.setSuccess(false);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(errorResponse);
         } catch (RuntimeException e) {
             LoginResponse errorResponse = new LoginResponse();
             errorResponse.setSuccess(false);
@@ -38,9 +47,10 @@ public class AuthController {
 
     @PostMapping("/logout")
     @Operation(summary = "User logout", description = "Logout user and invalidate token")
-    public ResponseEntity<Map<String, Object>> logout(Authentication authentication) {
-        if (authentication != null) {
-            authService.logout(authentication.getName());
+    public ResponseEntity<Map<String, Object>> logout(Authentication authentication,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader) {
+        if (authentication != null && authHeader != null && authHeader.startsWith("Bearer ")) {
+            authService.logout(authentication.getName(), authHeader.substring(7));
         }
         
         Map<String, Object> response = new HashMap<>();
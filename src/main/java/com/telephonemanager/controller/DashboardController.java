@@ -1,6 +1,8 @@
 package com.telephonemanager.controller;
 
+import com.telephonemanager.dto.DashboardSnapshot;
 import com.telephonemanager.service.DashboardService;
+import com.telephonemanager.service.DashboardSnapshotCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -17,16 +20,19 @@ import java.util.Map;
 public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
+    @Autowired
+    private DashboardSnapshotCache snapshotCache;
 
     @GetMapping("/overview")
     @PreAuthorize("hasRole('ADMIN') or hasRole('ASSIGNER')")
     @Operation(summary = "Get dashboard overview", description = "Get overall statistics for dashboard (Admin/Assigner only)")
     public ResponseEntity<Map<String, Object>> getDashboardOverview() {
         try {
-            Map<String, Object> overview = dashboardService.getDashboardOverview();
+            DashboardSnapshot<Map<String, Object>> snapshot = snapshotCache.get("overview", dashboardService::getDashboardOverview);
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("data", overview);
+            response.put("data", snapshot.getData());
+            response.put("generatedAt", snapshot.getGeneratedAt());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
@@ -44,10 +50,11 @@ public class DashboardController {
     @Operation(summary = "Get phone statistics", description = "Get detailed phone statistics (Admin/Assigner only)")
     public ResponseEntity<Map<String, Object>> getPhoneStats() {
         try {
-            Map<String, Object> stats = dashboardService.getPhoneStats();
+            DashboardSnapshot<Map<String, Object>> snapshot = snapshotCache.get("phone-stats", dashboardService::getPhoneStats);
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("data", stats);
+            response.put("data", snapshot.getData());
+            response.put("generatedAt", snapshot.getGeneratedAt());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
@@ -65,10 +72,11 @@ public class DashboardController {
     @Operation(summary = "Get SIM card statistics", description = "Get detailed SIM card statistics (Admin/Assigner only)")
     public ResponseEntity<Map<String, Object>> getSimCardStats() {
         try {
-            Map<String, Object> stats = dashboardService.getSimCardStats();
+            DashboardSnapshot<Map<String, Object>> snapshot = snapshotCache.get("sim-stats", dashboardService::getSimCardStats);
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("data", stats);
+            response.put("data", snapshot.getData());
+            response.put("generatedAt", snapshot.getGeneratedAt());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
@@ -86,10 +94,38 @@ public class DashboardController {
     @Operation(summary = "Get user statistics", description = "Get user statistics and distribution (Admin/Assigner only)")
     public ResponseEntity<Map<String, Object>> getUserStats() {
         try {
-            Map<String, Object> stats = dashboardService.getUserStats();
+            DashboardSnapshot<Map<String, Object>> snapshot = snapshotCache.get("user-stats", dashboardService::getUserStats);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", snapshot.getData());
+            response.put("generatedAt", snapshot.getGeneratedAt());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", Map.of(
+                "code", "STATS_ERROR",
+                "message", e.getMessage()
+            ));
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @GetMapping("/monthly-stats")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ASSIGNER')")
+    @Operation(summary = "Get monthly statistics", description = "Get monthly phone attributions and returns over the last N months (Admin/Assigner only)")
+    public ResponseEntity<Map<String, Object>> getMonthlyStats(
+            @RequestParam(defaultValue = "6") int months) {
+        try {
+            if (months < 1 || months > 120) {
+                throw new IllegalArgumentException("months must be between 1 and 120");
+            }
+            DashboardSnapshot<List<Map<String, Object>>> snapshot = snapshotCache.get(
+                "monthly-stats:" + months, () -> dashboardService.getMonthlyStats(months));
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("data", stats);
+            response.put("data", snapshot.getData());
+            response.put("generatedAt", snapshot.getGeneratedAt());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
@@ -108,10 +144,15 @@ public class DashboardController {
     public ResponseEntity<Map<String, Object>> getRecentActivity(
             @RequestParam(defaultValue = "10") int limit) {
         try {
-            Map<String, Object> activity = dashboardService.getRecentActivity(limit);
+            if (limit < 1 || limit > 100) {
+                throw new IllegalArgumentException("limit must be between 1 and 100");
+            }
+            DashboardSnapshot<Map<String, Object>> snapshot = snapshotCache.get(
+                "recent-activity:" + limit, () -> dashboardService.getRecentActivity(limit));
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("data", activity);
+            response.put("data", snapshot.getData());
+            response.put("generatedAt", snapshot.getGeneratedAt());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
@@ -129,10 +170,11 @@ public class DashboardController {
     @Operation(summary = "Get system alerts", description = "Get items needing attention (Admin/Assigner only)")
     public ResponseEntity<Map<String, Object>> getAlerts() {
         try {
-            Map<String, Object> alerts = dashboardService.getAlerts();
+            DashboardSnapshot<Map<String, Object>> snapshot = snapshotCache.get("alerts", dashboardService::getAlerts);
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("data", alerts);
+            response.put("data", snapshot.getData());
+            response.put("generatedAt", snapshot.getGeneratedAt());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
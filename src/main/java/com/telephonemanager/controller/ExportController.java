@@ -1,93 +1,243 @@
 package com.telephonemanager.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telephonemanager.dto.ExportJob;
+import com.telephonemanager.service.ExportBundleService;
+import com.telephonemanager.service.ExportJobService;
 import com.telephonemanager.service.ExportService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/export")
 public class ExportController {
+    // Watermark for the next delta export, issued before the export starts
+    public static final String CHANGE_TOKEN_HEADER = "X-Export-Change-Token";
+    // Whether the bundle files were read as one point-in-time snapshot
+    public static final String SNAPSHOT_ISOLATION_HEADER = "X-Export-Snapshot-Isolation";
 
     @Autowired
     private ExportService exportService;
+    @Autowired
+    private ExportJobService exportJobService;
+    @Autowired
+    private ExportBundleService exportBundleService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostMapping("/jobs")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ASSIGNER')")
+    public ResponseEntity<Map<String, Object>> submitExportJob(@RequestParam String entity,
+            @RequestParam(defaultValue = "csv") String format, Authentication authentication) {
+        try {
+            ExportJob job = exportJobService.submit(entity, format,
+                    authentication != null ? authentication.getName() : null);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", job);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", Map.of(
+                "code", "EXPORT_ERROR",
+                "message", e.getMessage()
+            ));
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ASSIGNER')")
+    public ResponseEntity<Map<String, Object>> getExportJob(@PathVariable String id) {
+        return exportJobService.getJob(id)
+                .map(job -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("data", job);
+                    return ResponseEntity.ok(response);
+                })
+                .orElseGet(() -> ResponseEntity.status(404).body(errorBody("NOT_FOUND", "Export job not found")));
+    }
+
+    @GetMapping("/jobs/{id}/download")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ASSIGNER')")
+    public ResponseEntity<?> downloadExportJob(@PathVariable String id) {
+        ExportJob job = exportJobService.getJob(id).orElse(null);
+        if (job == null || (job.getStatus() == ExportJob.Status.COMPLETED && !Files.exists(job.getFile()))) {
+            return ResponseEntity.status(404).body(errorBody("NOT_FOUND", "Export job not found or expired"));
+        }
+        if (job.getStatus() != ExportJob.Status.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(errorBody("NOT_READY", "Export job is " + job.getStatus().name().toLowerCase()));
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.getFilename())
+                .contentType(MediaType.parseMediaType(contentType(job.getFormat())))
+                .contentLength(job.getSizeBytes())
+                .body(new FileSystemResource(job.getFile()));
+    }
 
     @GetMapping("/users")
     @PreAuthorize("hasRole('ADMIN') or hasRole('ASSIGNER')")
-    public ResponseEntity<InputStreamResource> exportUsers(@RequestParam(defaultValue = "csv") String format) {
-        ByteArrayInputStream stream = exportService.exportUsers(format);
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "csv") String format) {
+        String changeToken = ExportService.issueChangeToken();
+        StreamingResponseBody stream = out -> exportService.export(ExportService.USERS, format, out, null);
         String filename = "users." + ("excel".equalsIgnoreCase(format) ? "xlsx" : "csv");
-        String contentType = "excel".equalsIgnoreCase(format) ? "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet" : "text/csv";
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(new InputStreamResource(stream));
+                .header(CHANGE_TOKEN_HEADER, changeToken)
+                .contentType(MediaType.parseMediaType(contentType(format)))
+                .body(stream);
     }
 
     @GetMapping("/phones")
     @PreAuthorize("hasRole('ADMIN') or hasRole('ASSIGNER')")
-    public ResponseEntity<InputStreamResource> exportPhones(@RequestParam(defaultValue = "csv") String format) {
-        ByteArrayInputStream stream = exportService.exportPhones(format);
+    public ResponseEntity<StreamingResponseBody> exportPhones(@RequestParam(defaultValue = "csv") String format) {
+        String changeToken = ExportService.issueChangeToken();
+        StreamingResponseBody stream = out -> exportService.export(ExportService.PHONES, format, out, null);
         String filename = "phones." + ("excel".equalsIgnoreCase(format) ? "xlsx" : "csv");
-        String contentType = "excel".equalsIgnoreCase(format) ? "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet" : "text/csv";
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(new InputStreamResource(stream));
+                .header(CHANGE_TOKEN_HEADER, changeToken)
+                .contentType(MediaType.parseMediaType(contentType(format)))
+                .body(stream);
     }
 
     @GetMapping("/simcards")
     @PreAuthorize("hasRole('ADMIN') or hasRole('ASSIGNER')")
-    public ResponseEntity<InputStreamResource> exportSimCards(@RequestParam(defaultValue = "csv") String format) {
-        ByteArrayInputStream stream = exportService.exportSimCards(format);
+    public ResponseEntity<StreamingResponseBody> exportSimCards(@RequestParam(defaultValue = "csv") String format) {
+        String changeToken = ExportService.issueChangeToken();
+        StreamingResponseBody stream = out -> exportService.export(ExportService.SIM_CARDS, format, out, null);
         String filename = "simcards." + ("excel".equalsIgnoreCase(format) ? "xlsx" : "csv");
-        String contentType = "excel".equalsIgnoreCase(format) ? "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet" : "text/csv";
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(new InputStreamResource(stream));
+                .header(CHANGE_TOKEN_HEADER, changeToken)
+                .contentType(MediaType.parseMediaType(contentType(format)))
+                .body(stream);
     }
 
     @GetMapping("/attributions")
     @PreAuthorize("hasRole('ADMIN') or hasRole('ASSIGNER')")
-    public ResponseEntity<InputStreamResource> exportAttributions(@RequestParam(defaultValue = "csv") String format) {
-        ByteArrayInputStream stream = exportService.exportAttributions(format);
+    public ResponseEntity<StreamingResponseBody> exportAttributions(@RequestParam(defaultValue = "csv") String format) {
+        String changeToken = ExportService.issueChangeToken();
+        StreamingResponseBody stream = out -> exportService.export(ExportService.ATTRIBUTIONS, format, out, null);
         String filename = "attributions." + ("excel".equalsIgnoreCase(format) ? "xlsx" : "csv");
-        String contentType = "excel".equalsIgnoreCase(format) ? "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet" : "text/csv";
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(new InputStreamResource(stream));
+                .header(CHANGE_TOKEN_HEADER, changeToken)
+                .contentType(MediaType.parseMediaType(contentType(format)))
+                .body(stream);
     }
 
     @GetMapping("/requests")
     @PreAuthorize("hasRole('ADMIN') or hasRole('ASSIGNER')")
-    public ResponseEntity<InputStreamResource> exportRequests(@RequestParam(defaultValue = "csv") String format) {
-        ByteArrayInputStream stream = exportService.exportRequests(format);
+    public ResponseEntity<StreamingResponseBody> exportRequests(@RequestParam(defaultValue = "csv") String format) {
+        String changeToken = ExportService.issueChangeToken();
+        StreamingResponseBody stream = out -> exportService.export(ExportService.REQUESTS, format, out, null);
         String filename = "requests." + ("excel".equalsIgnoreCase(format) ? "xlsx" : "csv");
-        String contentType = "excel".equalsIgnoreCase(format) ? "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet" : "text/csv";
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(new InputStreamResource(stream));
+                .header(CHANGE_TOKEN_HEADER, changeToken)
+                .contentType(MediaType.parseMediaType(contentType(format)))
+                .body(stream);
+    }
+
+    @GetMapping("/changes/{entity}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ASSIGNER')")
+    public ResponseEntity<StreamingResponseBody> exportChanges(@PathVariable String entity,
+            @RequestParam(required = false) String token,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "csv") String format) {
+        LocalDateTime watermark;
+        try {
+            if (!ExportService.ENTITIES.contains(entity)) {
+                throw new IllegalArgumentException("Unknown export entity: " + entity);
+            }
+            watermark = exportService.resolveChangeWatermark(token, since);
+        } catch (IllegalArgumentException e) {
+            // Streaming endpoints can only return a StreamingResponseBody, so the error is written as one
+            Map<String, Object> error = errorBody("INVALID_CHANGE_TOKEN", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, error));
+        }
+        String changeToken = ExportService.issueChangeToken();
+        StreamingResponseBody stream = out -> exportService.exportChanges(entity, format, watermark, out);
+        String filename = entity + "-changes." + ("excel".equalsIgnoreCase(format) ? "xlsx" : "csv");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .header(CHANGE_TOKEN_HEADER, changeToken)
+                .contentType(MediaType.parseMediaType(contentType(format)))
+                .body(stream);
+    }
+
+    @GetMapping("/bundle")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ASSIGNER')")
+    public ResponseEntity<StreamingResponseBody> exportBundle() {
+        if (!exportBundleService.tryAcquire()) {
+            Map<String, Object> error = errorBody("BUNDLE_BUSY", "An export bundle is already being generated, please retry later");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, error));
+        }
+        try {
+            exportBundleService.checkSnapshotIsolation();
+        } catch (IllegalStateException e) {
+            exportBundleService.release();
+            Map<String, Object> error = errorBody("SNAPSHOT_ISOLATION_UNAVAILABLE", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, error));
+        }
+        StreamingResponseBody stream = out -> exportBundleService.writeBundle(out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=export-bundle.zip")
+                .header(SNAPSHOT_ISOLATION_HEADER, String.valueOf(exportBundleService.isSnapshotIsolation()))
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(stream);
     }
 
     @GetMapping("/audit-logs")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<InputStreamResource> exportAuditLogs() {
-        ByteArrayInputStream stream = exportService.exportAuditLogsToCsv();
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(@RequestParam(defaultValue = "csv") String format) {
+        StreamingResponseBody stream = out -> exportService.exportAuditLogs(format, out);
+        String filename = "audit_logs." + ("excel".equalsIgnoreCase(format) ? "xlsx" : "csv");
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=audit_logs.csv")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(new InputStreamResource(stream));
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .contentType(MediaType.parseMediaType(contentType(format)))
+                .body(stream);
+    }
+
+    private static String contentType(String format) {
+        return "excel".equalsIgnoreCase(format) ? "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet" : "text/csv";
+    }
+
+    private static Map<String, Object> errorBody(String code, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", Map.of(
+            "code", code,
+            "message", message
+        ));
+        return response;
     }
-} 
\ No newline at end of file
+}
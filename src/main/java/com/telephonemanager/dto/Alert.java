@@ -0,0 +1,50 @@
+package com.telephonemanager.dto;
+
+/**
+ * An active dashboard alert raised by an alert rule for one phone, SIM card or user.
+ */
+public class Alert {
+    public enum Severity {
+        HIGH, MEDIUM, LOW
+    }
+
+    private final String type;
+    private final Severity severity;
+    private final String itemType;
+    private final Long itemId;
+    private final String itemName;
+    private final String message;
+
+    public Alert(String type, Severity severity, String itemType, Long itemId, String itemName, String message) {
+        this.type = type;
+        this.severity = severity;
+        this.itemType = itemType;
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.message = message;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Severity getSeverity() {
+        return severity;
+    }
+
+    public String getItemType() {
+        return itemType;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
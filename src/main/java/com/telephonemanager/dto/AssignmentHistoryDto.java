@@ -14,6 +14,10 @@ public class AssignmentHistoryDto {
     private LocalDateTime date;
     private String notes;
     private Double remainingValue;
+    // Display names resolved by the activity feed
+    private String itemName;
+    private String fromUserName;
+    private String toUserName;
 
     public AssignmentHistoryDto() {
     }
@@ -102,4 +106,28 @@ public class AssignmentHistoryDto {
     public void setRemainingValue(Double remainingValue) {
         this.remainingValue = remainingValue;
     }
-}
\ No newline at end of file
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+
+    public String getFromUserName() {
+        return fromUserName;
+    }
+
+    public void setFromUserName(String fromUserName) {
+        this.fromUserName = fromUserName;
+    }
+
+    public String getToUserName() {
+        return toUserName;
+    }
+
+    public void setToUserName(String toUserName) {
+        this.toUserName = toUserName;
+    }
+}
@@ -0,0 +1,37 @@
+package com.telephonemanager.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable precomputed dashboard response together with the time it was built
+ * and the data generation it reflects.
+ */
+public class DashboardSnapshot<T> {
+    private final T data;
+    private final LocalDateTime generatedAt;
+    private final long generatedAtMillis;
+    private final long generation;
+
+    public DashboardSnapshot(T data, long generation) {
+        this.data = data;
+        this.generatedAtMillis = System.currentTimeMillis();
+        this.generatedAt = LocalDateTime.now();
+        this.generation = generation;
+    }
+
+    public T getData() {
+        return data;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public long getGeneratedAtMillis() {
+        return generatedAtMillis;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+}
@@ -0,0 +1,43 @@
+package com.telephonemanager.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Row count and latest modification time of a table. Any insert, update or delete
+ * made through the entity changes at least one of the two.
+ */
+public class DataWatermark {
+    private final long count;
+    private final LocalDateTime lastModified;
+
+    public DataWatermark(Long count, LocalDateTime lastModified) {
+        this.count = count != null ? count : 0;
+        this.lastModified = lastModified;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DataWatermark)) {
+            return false;
+        }
+        DataWatermark other = (DataWatermark) o;
+        return count == other.count && Objects.equals(lastModified, other.lastModified);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(count, lastModified);
+    }
+}
@@ -0,0 +1,33 @@
+package com.telephonemanager.dto;
+
+/**
+ * One row of a per-department aggregation: a count and, where relevant, a summed
+ * amount (phone book value or monthly SIM spend). Built by JPQL constructor expressions.
+ */
+public class DepartmentAggregate {
+    private final String department;
+    private final long count;
+    private final double amount;
+
+    public DepartmentAggregate(String department, Long count) {
+        this(department, count, 0.0);
+    }
+
+    public DepartmentAggregate(String department, Long count, Double amount) {
+        this.department = department;
+        this.count = count != null ? count : 0L;
+        this.amount = amount != null ? amount : 0.0;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+}
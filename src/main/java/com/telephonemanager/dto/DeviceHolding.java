@@ -0,0 +1,32 @@
+package com.telephonemanager.dto;
+
+/**
+ * Number of devices (phones or SIM cards) currently assigned to one user.
+ */
+public class DeviceHolding {
+    private final Long userId;
+    private final String userName;
+    private final long devices;
+
+    public DeviceHolding(Long userId, String userName, Long devices) {
+        this.userId = userId;
+        this.userName = userName;
+        this.devices = devices != null ? devices : 0L;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public long getDevices() {
+        return devices;
+    }
+
+    public DeviceHolding plus(DeviceHolding other) {
+        return new DeviceHolding(userId, userName, devices + other.devices);
+    }
+}
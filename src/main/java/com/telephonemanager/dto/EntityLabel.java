@@ -0,0 +1,23 @@
+package com.telephonemanager.dto;
+
+/**
+ * Id and display name of a user, phone or SIM card, used to enrich history rows
+ * without loading full entities.
+ */
+public class EntityLabel {
+    private final Long id;
+    private final String label;
+
+    public EntityLabel(Long id, String label) {
+        this.id = id;
+        this.label = label;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
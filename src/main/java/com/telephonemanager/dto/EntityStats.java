@@ -0,0 +1,71 @@
+package com.telephonemanager.dto;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Status (or role) distribution, total and assignment figures of one entity,
+ * folded from a single grouped query.
+ */
+public class EntityStats<E extends Enum<E>> {
+    private final Map<E, Long> distribution;
+    private final long total;
+    private final long assigned;
+
+    private EntityStats(Map<E, Long> distribution, long total, long assigned) {
+        this.distribution = Collections.unmodifiableMap(distribution);
+        this.total = total;
+        this.assigned = assigned;
+    }
+
+    public static <E extends Enum<E>> EntityStats<E> from(Class<E> type, List<StatusAggregate<E>> rows) {
+        Map<E, Long> distribution = new EnumMap<>(type);
+        for (E constant : type.getEnumConstants()) {
+            distribution.put(constant, 0L);
+        }
+        long total = 0;
+        long assigned = 0;
+        for (StatusAggregate<E> row : rows) {
+            if (row.getKey() != null) {
+                distribution.put(row.getKey(), row.getCount());
+            }
+            total += row.getCount();
+            assigned += row.getAssigned();
+        }
+        return new EntityStats<>(distribution, total, assigned);
+    }
+
+    public long getCount(E key) {
+        return distribution.getOrDefault(key, 0L);
+    }
+
+    public Map<E, Long> getDistribution() {
+        return distribution;
+    }
+
+    public Map<String, Long> getDistributionByName() {
+        Map<String, Long> byName = new LinkedHashMap<>();
+        distribution.forEach((key, count) -> byName.put(key.name(), count));
+        return byName;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getAssigned() {
+        return assigned;
+    }
+
+    public long getUnassigned() {
+        return total - assigned;
+    }
+
+    public double getAssignmentRate() {
+        double rate = total > 0 ? (double) assigned / total * 100 : 0;
+        return Math.round(rate * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,146 @@
+package com.telephonemanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of an asynchronous export: progress while it runs and the location of
+ * the finished artifact in the on-disk result store.
+ */
+public class ExportJob {
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String entity;
+    private final String format;
+    private final String requestedBy;
+    private final DataWatermark watermark;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private volatile long estimatedTotal;
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime completedAt;
+    private volatile long completedAtMillis;
+    private volatile long sizeBytes;
+    private volatile Path file;
+    private volatile String error;
+
+    public ExportJob(String id, String entity, String format, String requestedBy, DataWatermark watermark) {
+        this.id = id;
+        this.entity = entity;
+        this.format = format;
+        this.requestedBy = requestedBy;
+        this.watermark = watermark;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public String getRequestedBy() {
+        return requestedBy;
+    }
+
+    @JsonIgnore
+    public DataWatermark getWatermark() {
+        return watermark;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    @JsonIgnore
+    public AtomicLong getRowCounter() {
+        return rowsWritten;
+    }
+
+    public long getEstimatedTotal() {
+        return estimatedTotal;
+    }
+
+    public void setEstimatedTotal(long estimatedTotal) {
+        this.estimatedTotal = estimatedTotal;
+    }
+
+    /**
+     * Percentage of the estimated rows written so far. The estimate is a count taken
+     * when the job starts, so it is capped below 100 until the job actually completes.
+     */
+    public int getProgress() {
+        if (status == Status.COMPLETED) {
+            return 100;
+        }
+        if (estimatedTotal <= 0) {
+            return 0;
+        }
+        return (int) Math.min(99, rowsWritten.get() * 100 / estimatedTotal);
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    @JsonIgnore
+    public long getCompletedAtMillis() {
+        return completedAtMillis;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    @JsonIgnore
+    public Path getFile() {
+        return file;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @JsonIgnore
+    public String getFilename() {
+        return entity + ("excel".equals(format) ? ".xlsx" : ".csv");
+    }
+
+    public void complete(Path file, long sizeBytes) {
+        this.file = file;
+        this.sizeBytes = sizeBytes;
+        this.completedAt = LocalDateTime.now();
+        this.completedAtMillis = System.currentTimeMillis();
+        this.status = Status.COMPLETED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        this.completedAt = LocalDateTime.now();
+        this.completedAtMillis = System.currentTimeMillis();
+        this.status = Status.FAILED;
+    }
+}
@@ -0,0 +1,26 @@
+package com.telephonemanager.dto;
+
+/**
+ * Lowest and highest primary key of a table; both are null when the table is empty.
+ */
+public class IdRange {
+    private final Long minId;
+    private final Long maxId;
+
+    public IdRange(Long minId, Long maxId) {
+        this.minId = minId;
+        this.maxId = maxId;
+    }
+
+    public Long getMinId() {
+        return minId;
+    }
+
+    public Long getMaxId() {
+        return maxId;
+    }
+
+    public boolean isEmpty() {
+        return minId == null || maxId == null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.telephonemanager.dto;
+
+import com.telephonemanager.entity.AssignmentHistory;
+
+import java.time.LocalDate;
+
+/**
+ * Assignment history count of one (month, type, action) group, as produced
+ * by the rollup backfill query.
+ */
+public class MonthlyHistoryCount {
+    private final LocalDate monthStart;
+    private final AssignmentHistory.Type type;
+    private final AssignmentHistory.Action action;
+    private final long count;
+
+    public MonthlyHistoryCount(Integer year, Integer month, AssignmentHistory.Type type,
+            AssignmentHistory.Action action, Long count) {
+        this.monthStart = LocalDate.of(year, month, 1);
+        this.type = type;
+        this.action = action;
+        this.count = count != null ? count : 0L;
+    }
+
+    public LocalDate getMonthStart() {
+        return monthStart;
+    }
+
+    public AssignmentHistory.Type getType() {
+        return type;
+    }
+
+    public AssignmentHistory.Action getAction() {
+        return action;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
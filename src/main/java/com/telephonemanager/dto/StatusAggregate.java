@@ -0,0 +1,33 @@
+package com.telephonemanager.dto;
+
+/**
+ * One row of a grouped status/role aggregation, built directly by JPQL
+ * constructor expressions so callers never cast raw Object[] rows.
+ */
+public class StatusAggregate<E extends Enum<E>> {
+    private final E key;
+    private final long count;
+    private final long assigned;
+
+    public StatusAggregate(E key, Long count) {
+        this(key, count, 0L);
+    }
+
+    public StatusAggregate(E key, Long count, Long assigned) {
+        this.key = key;
+        this.count = count != null ? count : 0L;
+        this.assigned = assigned != null ? assigned : 0L;
+    }
+
+    public E getKey() {
+        return key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getAssigned() {
+        return assigned;
+    }
+}
@@ -4,6 +4,11 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_history_date_id", columnList = "date, id"),
+        @Index(name = "idx_history_from_user", columnList = "fromUserId"),
+        @Index(name = "idx_history_to_user", columnList = "toUserId")
+})
 public class AssignmentHistory {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,85 @@
+package com.telephonemanager.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Monthly rollup of assignment history, one row per (month, type, action).
+ * Kept up to date by AssignmentHistoryService.record and rebuilt from the
+ * raw history by the backfill job.
+ */
+@Entity
+@Table(name = "assignment_history_monthly",
+        uniqueConstraints = @UniqueConstraint(name = "uk_history_monthly_key",
+                columnNames = { "month_start", "type", "action" }))
+public class AssignmentHistoryMonthly {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AssignmentHistory.Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AssignmentHistory.Action action;
+
+    @Column(name = "record_count", nullable = false)
+    private long count;
+
+    public AssignmentHistoryMonthly() {
+    }
+
+    public AssignmentHistoryMonthly(LocalDate monthStart, AssignmentHistory.Type type,
+            AssignmentHistory.Action action, long count) {
+        this.monthStart = monthStart;
+        this.type = type;
+        this.action = action;
+        this.count = count;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getMonthStart() {
+        return monthStart;
+    }
+
+    public void setMonthStart(LocalDate monthStart) {
+        this.monthStart = monthStart;
+    }
+
+    public AssignmentHistory.Type getType() {
+        return type;
+    }
+
+    public void setType(AssignmentHistory.Type type) {
+        this.type = type;
+    }
+
+    public AssignmentHistory.Action getAction() {
+        return action;
+    }
+
+    public void setAction(AssignmentHistory.Action action) {
+        this.action = action;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -5,7 +5,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "attributions")
+@Table(name = "attributions", indexes = @Index(name = "idx_attribution_updated_at", columnList = "updated_at"))
 public class Attribution {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
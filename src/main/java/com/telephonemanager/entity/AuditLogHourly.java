@@ -0,0 +1,110 @@
+package com.telephonemanager.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Hourly rollup of the audit log, one row per (hour, action, entity type, user).
+ * Updated by AuditLogWriter in the same transaction as the audit rows it counts,
+ * so the two never drift apart. user_id 0 stands for unauthenticated calls.
+ */
+@Entity
+@Table(name = "audit_log_hourly",
+        uniqueConstraints = @UniqueConstraint(name = "uk_audit_hourly_key",
+                columnNames = { "hour_start", "action", "entity_type", "user_id" }))
+public class AuditLogHourly {
+    public static final long ANONYMOUS_USER_ID = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hour_start", nullable = false)
+    private LocalDateTime hourStart;
+
+    @Column(nullable = false, length = 64)
+    private String action;
+
+    @Column(name = "entity_type", nullable = false, length = 64)
+    private String entityType;
+
+    @Column(name = "user_id", nullable = false)
+    private long userId;
+
+    // Last email seen for the user in this hour, used as the distribution label
+    @Column(name = "user_email")
+    private String userEmail;
+
+    @Column(name = "record_count", nullable = false)
+    private long count;
+
+    public AuditLogHourly() {
+    }
+
+    public AuditLogHourly(LocalDateTime hourStart, String action, String entityType, long userId, String userEmail,
+            long count) {
+        this.hourStart = hourStart;
+        this.action = action;
+        this.entityType = entityType;
+        this.userId = userId;
+        this.userEmail = userEmail;
+        this.count = count;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getHourStart() {
+        return hourStart;
+    }
+
+    public void setHourStart(LocalDateTime hourStart) {
+        this.hourStart = hourStart;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(long userId) {
+        this.userId = userId;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
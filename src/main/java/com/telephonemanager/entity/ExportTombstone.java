@@ -0,0 +1,52 @@
+package com.telephonemanager.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Records the deletion of an exported row so delta exports can report it.
+ * Rows older than the tombstone retention are purged; change tokens older
+ * than that are rejected and the client must run a full export instead.
+ */
+@Entity
+@Table(name = "export_tombstones",
+        indexes = @Index(name = "idx_tombstone_entity_deleted", columnList = "entity, deleted_at"))
+public class ExportTombstone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String entity;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public ExportTombstone() {
+    }
+
+    public ExportTombstone(String entity, Long entityId) {
+        this.entity = entity;
+        this.entityId = entityId;
+        this.deletedAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -4,7 +4,7 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "requests")
+@Table(name = "requests", indexes = @Index(name = "idx_request_updated_at", columnList = "updated_at"))
 public class Request {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,6 +1,7 @@
 package com.telephonemanager.entity;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -9,10 +10,18 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_sim_card_assigned_to", columnList = "assigned_to_id"),
+        @Index(name = "idx_sim_card_updated_at", columnList = "updated_at")
+})
 public class SimCard {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -64,6 +73,15 @@ public class SimCard {
     @Column
     private LocalDate expiryDate;
 
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onChange() {
+        updatedAt = LocalDateTime.now();
+    }
+
     public enum Status {
         AVAILABLE,
         ASSIGNED,
@@ -106,4 +124,6 @@ public class SimCard {
     public void setActivationDate(LocalDate activationDate) { this.activationDate = activationDate; }
     public LocalDate getExpiryDate() { return expiryDate; }
     public void setExpiryDate(LocalDate expiryDate) { this.expiryDate = expiryDate; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 } 
\ No newline at end of file
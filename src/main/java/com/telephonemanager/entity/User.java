@@ -14,7 +14,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_user_updated_at", columnList = "updated_at"))
 @EntityListeners(AuditingEntityListener.class)
 public class User {
 
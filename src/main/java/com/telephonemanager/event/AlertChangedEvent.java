@@ -0,0 +1,33 @@
+package com.telephonemanager.event;
+
+import com.telephonemanager.dto.Alert;
+
+/**
+ * Published by the alert engine when an alert is raised, changed or cleared by an
+ * incremental evaluation, or (with no alert) when the whole store was rebuilt.
+ */
+public class AlertChangedEvent {
+    private final Alert alert;
+    private final boolean active;
+
+    public AlertChangedEvent(Alert alert, boolean active) {
+        this.alert = alert;
+        this.active = active;
+    }
+
+    public static AlertChangedEvent storeRebuilt() {
+        return new AlertChangedEvent(null, true);
+    }
+
+    public boolean isStoreRebuilt() {
+        return alert == null;
+    }
+
+    public Alert getAlert() {
+        return alert;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+}
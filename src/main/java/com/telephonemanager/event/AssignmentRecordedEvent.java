@@ -0,0 +1,18 @@
+package com.telephonemanager.event;
+
+import com.telephonemanager.entity.AssignmentHistory;
+
+/**
+ * Published by AssignmentHistoryService after a history row has been written.
+ */
+public class AssignmentRecordedEvent {
+    private final AssignmentHistory history;
+
+    public AssignmentRecordedEvent(AssignmentHistory history) {
+        this.history = history;
+    }
+
+    public AssignmentHistory getHistory() {
+        return history;
+    }
+}
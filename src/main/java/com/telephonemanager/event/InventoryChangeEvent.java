@@ -0,0 +1,116 @@
+package com.telephonemanager.event;
+
+import com.telephonemanager.entity.Attribution;
+import com.telephonemanager.entity.Phone;
+import com.telephonemanager.entity.SimCard;
+import com.telephonemanager.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by the domain services whenever a phone, SIM card, user or attribution
+ * is created, changed, assigned, unassigned, transferred, returned or deleted.
+ * Carries the item's state before and after the change (null when the item did
+ * not exist) so listeners can apply deltas without reloading it.
+ */
+public class InventoryChangeEvent {
+
+    public enum ItemType {
+        PHONE, SIM, USER, ATTRIBUTION
+    }
+
+    public enum Action {
+        CREATE, UPDATE, DELETE, ASSIGN, UNASSIGN, TRANSFER, RETURN
+    }
+
+    private final ItemType itemType;
+    private final Action action;
+    private final Long itemId;
+    private final ItemState before;
+    private final ItemState after;
+    private final LocalDateTime occurredAt = LocalDateTime.now();
+
+    public InventoryChangeEvent(ItemType itemType, Action action, Long itemId, ItemState before, ItemState after) {
+        this.itemType = itemType;
+        this.action = action;
+        this.itemId = itemId;
+        this.before = before;
+        this.after = after;
+    }
+
+    public ItemType getItemType() {
+        return itemType;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public ItemState getBefore() {
+        return before;
+    }
+
+    public ItemState getAfter() {
+        return after;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    /**
+     * Snapshot of the fields listeners care about: the status, the owning user
+     * (assignee or attribution holder) and, for users, the role.
+     */
+    public static class ItemState {
+        private final Enum<?> status;
+        private final Long ownerId;
+        private final User.UserRole role;
+
+        private ItemState(Enum<?> status, Long ownerId, User.UserRole role) {
+            this.status = status;
+            this.ownerId = ownerId;
+            this.role = role;
+        }
+
+        public static ItemState of(Phone phone) {
+            return new ItemState(phone.getStatus(),
+                    phone.getAssignedTo() != null ? phone.getAssignedTo().getId() : null, null);
+        }
+
+        public static ItemState of(SimCard sim) {
+            return new ItemState(sim.getStatus(),
+                    sim.getAssignedTo() != null ? sim.getAssignedTo().getId() : null, null);
+        }
+
+        public static ItemState of(User user) {
+            return new ItemState(user.getStatus(), null, user.getRole());
+        }
+
+        public static ItemState of(Attribution attribution) {
+            return new ItemState(attribution.getStatus(),
+                    attribution.getUser() != null ? attribution.getUser().getId() : null, null);
+        }
+
+        @SuppressWarnings("unchecked")
+        public <E extends Enum<E>> E getStatus() {
+            return (E) status;
+        }
+
+        public Long getOwnerId() {
+            return ownerId;
+        }
+
+        public boolean isAssigned() {
+            return ownerId != null;
+        }
+
+        public User.UserRole getRole() {
+            return role;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.telephonemanager.repository;
+
+import com.telephonemanager.entity.AssignmentHistory;
+import com.telephonemanager.entity.AssignmentHistoryMonthly;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AssignmentHistoryMonthlyRepository extends JpaRepository<AssignmentHistoryMonthly, Long> {
+
+    @Modifying
+    @Query("UPDATE AssignmentHistoryMonthly m SET m.count = m.count + :delta " +
+           "WHERE m.monthStart = :monthStart AND m.type = :type AND m.action = :action")
+    int increment(@Param("monthStart") LocalDate monthStart,
+                  @Param("type") AssignmentHistory.Type type,
+                  @Param("action") AssignmentHistory.Action action,
+                  @Param("delta") long delta);
+
+    boolean existsByMonthStartAndTypeAndAction(LocalDate monthStart, AssignmentHistory.Type type,
+                                               AssignmentHistory.Action action);
+
+    List<AssignmentHistoryMonthly> findByTypeAndMonthStartBetweenOrderByMonthStart(
+            AssignmentHistory.Type type, LocalDate from, LocalDate to);
+}
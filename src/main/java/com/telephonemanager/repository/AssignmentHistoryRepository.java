@@ -1,15 +1,24 @@
 package com.telephonemanager.repository;
 
+import com.telephonemanager.dto.DataWatermark;
+import com.telephonemanager.dto.MonthlyHistoryCount;
 import com.telephonemanager.entity.AssignmentHistory;
 import com.telephonemanager.entity.AssignmentHistory.Type;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface AssignmentHistoryRepository extends JpaRepository<AssignmentHistory, Long> {
+public interface AssignmentHistoryRepository extends JpaRepository<AssignmentHistory, Long>,
+        AssignmentHistoryRepositoryCustom {
     List<AssignmentHistory> findByTypeAndItemId(Type type, Long itemId);
 
     List<AssignmentHistory> findByToUserIdOrFromUserId(Long toUserId, Long fromUserId);
@@ -19,11 +28,31 @@ public interface AssignmentHistoryRepository extends JpaRepository<AssignmentHis
 
     long countByDateBetweenAndAction(LocalDateTime startDate, LocalDateTime endDate, AssignmentHistory.Action action);
 
-    long countByDateBetweenAndTypeAndActionIn(
-            LocalDateTime startDate,
-            LocalDateTime endDate,
-            AssignmentHistory.Type type,
-            java.util.Collection<AssignmentHistory.Action> actions);
-
-    List<AssignmentHistory> findTop10ByOrderByDateDesc();
-}
\ No newline at end of file
+    @Query("SELECT new com.telephonemanager.dto.MonthlyHistoryCount(" +
+            "YEAR(h.date), MONTH(h.date), h.type, h.action, COUNT(h)) " +
+            "FROM AssignmentHistory h " +
+            "GROUP BY YEAR(h.date), MONTH(h.date), h.type, h.action")
+    List<MonthlyHistoryCount> countByMonthTypeAndAction();
+
+    // Export: flat projection over a forward-only cursor, columns in export order
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT h.id, h.type, h.itemId, h.fromUserId, h.toUserId, h.action, h.date, h.notes, h.remainingValue " +
+           "FROM AssignmentHistory h ORDER BY h.id")
+    Stream<Object[]> streamExportRows();
+
+    // Delta export: history is append-only, so rows recorded at or after the watermark
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT h.id, h.type, h.itemId, h.fromUserId, h.toUserId, h.action, h.date, h.notes, h.remainingValue " +
+           "FROM AssignmentHistory h WHERE h.date >= :since ORDER BY h.id")
+    Stream<Object[]> streamExportRowsChangedSince(@Param("since") LocalDateTime since);
+
+    // Export job reuse: history rows are append-only, so count and latest date change with every write
+    @Query("SELECT new com.telephonemanager.dto.DataWatermark(COUNT(h), MAX(h.date)) FROM AssignmentHistory h")
+    DataWatermark findDataWatermark();
+}
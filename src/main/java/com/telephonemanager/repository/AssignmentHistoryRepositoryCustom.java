@@ -0,0 +1,17 @@
+package com.telephonemanager.repository;
+
+import com.telephonemanager.entity.AssignmentHistory;
+import com.telephonemanager.entity.AssignmentHistory.Action;
+import com.telephonemanager.entity.AssignmentHistory.Type;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AssignmentHistoryRepositoryCustom {
+    /**
+     * One page of history ordered by (date, id) descending, starting strictly after the
+     * given keyset position. Null filters and a null cursor are left out of the query.
+     */
+    List<AssignmentHistory> findFeedPage(Type type, Action action, Long userId,
+            LocalDateTime cursorDate, Long cursorId, int limit);
+}
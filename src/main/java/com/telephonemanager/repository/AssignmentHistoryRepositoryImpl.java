@@ -0,0 +1,53 @@
+package com.telephonemanager.repository;
+
+import com.telephonemanager.entity.AssignmentHistory;
+import com.telephonemanager.entity.AssignmentHistory.Action;
+import com.telephonemanager.entity.AssignmentHistory.Type;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the feed query from only the predicates in use, so the database can seek
+ * on the (date, id) index instead of evaluating catch-all "IS NULL OR" filters.
+ */
+public class AssignmentHistoryRepositoryImpl implements AssignmentHistoryRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AssignmentHistory> findFeedPage(Type type, Action action, Long userId,
+            LocalDateTime cursorDate, Long cursorId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AssignmentHistory> query = cb.createQuery(AssignmentHistory.class);
+        Root<AssignmentHistory> h = query.from(AssignmentHistory.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (type != null) {
+            predicates.add(cb.equal(h.get("type"), type));
+        }
+        if (action != null) {
+            predicates.add(cb.equal(h.get("action"), action));
+        }
+        if (userId != null) {
+            predicates.add(cb.or(cb.equal(h.get("fromUserId"), userId), cb.equal(h.get("toUserId"), userId)));
+        }
+        if (cursorDate != null && cursorId != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(h.<LocalDateTime>get("date"), cursorDate),
+                    cb.and(cb.equal(h.get("date"), cursorDate), cb.lessThan(h.<Long>get("id"), cursorId))));
+        }
+
+        query.select(h)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(h.get("date")), cb.desc(h.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
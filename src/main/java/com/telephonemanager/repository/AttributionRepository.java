@@ -1,18 +1,25 @@
 package com.telephonemanager.repository;
 
+import com.telephonemanager.dto.DataWatermark;
+import com.telephonemanager.dto.IdRange;
 import com.telephonemanager.entity.Attribution;
 import com.telephonemanager.entity.Attribution.Status;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
 
 @Repository
 public interface AttributionRepository extends JpaRepository<Attribution, Long> {
@@ -82,4 +89,53 @@ public interface AttributionRepository extends JpaRepository<Attribution, Long>
         @Param("status") Status status,
         @Param("notes") String notes
     );
-} 
\ No newline at end of file
+
+    // Export: flat projection over a forward-only cursor, columns in export order
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.id, u.id, u.name, u.email, p.id, p.model, p.brand, s.id, s.number, ab.id, ab.name, " +
+           "a.assignmentDate, a.returnDate, a.status, a.notes, a.createdAt, a.updatedAt " +
+           "FROM Attribution a LEFT JOIN a.user u LEFT JOIN a.phone p LEFT JOIN a.simCard s " +
+           "LEFT JOIN a.assignedBy ab ORDER BY a.id")
+    Stream<Object[]> streamExportRows();
+
+    // Delta export: rows created or modified at or after the watermark
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.id, u.id, u.name, u.email, p.id, p.model, p.brand, s.id, s.number, ab.id, ab.name, " +
+           "a.assignmentDate, a.returnDate, a.status, a.notes, a.createdAt, a.updatedAt " +
+           "FROM Attribution a LEFT JOIN a.user u LEFT JOIN a.phone p LEFT JOIN a.simCard s " +
+           "LEFT JOIN a.assignedBy ab WHERE a.updatedAt >= :since ORDER BY a.id")
+    Stream<Object[]> streamExportRowsChangedSince(@Param("since") LocalDateTime since);
+
+    // Parallel export: one primary-key range per worker
+    @Query("SELECT new com.telephonemanager.dto.IdRange(MIN(a.id), MAX(a.id)) FROM Attribution a")
+    IdRange findIdRange();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.id, u.id, u.name, u.email, p.id, p.model, p.brand, s.id, s.number, ab.id, ab.name, " +
+           "a.assignmentDate, a.returnDate, a.status, a.notes, a.createdAt, a.updatedAt " +
+           "FROM Attribution a LEFT JOIN a.user u LEFT JOIN a.phone p LEFT JOIN a.simCard s " +
+           "LEFT JOIN a.assignedBy ab WHERE a.id BETWEEN :fromId AND :toId ORDER BY a.id")
+    Stream<Object[]> streamExportRowsInRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Renewal index: active attributions with the labels shown in renewal reminders
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.id, a.assignmentDate, a.createdAt, u.id, u.name, u.department, p.id, p.brand, p.model " +
+           "FROM Attribution a LEFT JOIN a.user u LEFT JOIN a.phone p WHERE a.status = :status")
+    Stream<Object[]> streamRenewalRows(@Param("status") Status status);
+
+    // Export job reuse: changes whenever a row is added, removed or modified
+    @Query("SELECT new com.telephonemanager.dto.DataWatermark(COUNT(a), MAX(a.updatedAt)) FROM Attribution a")
+    DataWatermark findDataWatermark();
+}
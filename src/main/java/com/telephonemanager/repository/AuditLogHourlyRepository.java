@@ -0,0 +1,22 @@
+package com.telephonemanager.repository;
+
+import com.telephonemanager.entity.AuditLogHourly;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AuditLogHourlyRepository extends JpaRepository<AuditLogHourly, Long> {
+
+    @Query("SELECT COALESCE(SUM(b.count), 0) FROM AuditLogHourly b WHERE b.hourStart >= :start AND b.hourStart < :end")
+    long sumCount(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Buckets of the range merged across hours: action, entityType, userId, userEmail, count
+    @Query("SELECT b.action, b.entityType, b.userId, MAX(b.userEmail), SUM(b.count) FROM AuditLogHourly b " +
+           "WHERE b.hourStart >= :start AND b.hourStart < :end GROUP BY b.action, b.entityType, b.userId")
+    List<Object[]> sumByKey(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
@@ -0,0 +1,35 @@
+package com.telephonemanager.repository;
+
+import com.telephonemanager.entity.AuditLog;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface AuditLogRepository extends JpaRepository<AuditLog, Long>, JpaSpecificationExecutor<AuditLog>,
+        AuditLogRepositoryCustom {
+
+    // Rollup rebuild: year, month, day, hour, action, entityType, userId, userEmail, count
+    @Query("SELECT YEAR(a.occurredAt), MONTH(a.occurredAt), DAY(a.occurredAt), HOUR(a.occurredAt), a.action, " +
+           "COALESCE(a.entityType, ''), COALESCE(a.userId, 0), MAX(a.userEmail), COUNT(a) FROM AuditLog a " +
+           "GROUP BY YEAR(a.occurredAt), MONTH(a.occurredAt), DAY(a.occurredAt), HOUR(a.occurredAt), a.action, " +
+           "COALESCE(a.entityType, ''), COALESCE(a.userId, 0)")
+    List<Object[]> countByHourAndKey();
+
+    // Export: flat projection over a forward-only cursor, columns in export order
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.id, a.occurredAt, a.userId, a.userEmail, a.action, a.entityType, a.entityId, a.httpMethod, " +
+           "a.path, a.statusCode, a.ipAddress, a.durationMs, a.details FROM AuditLog a ORDER BY a.id")
+    Stream<Object[]> streamExportRows();
+}
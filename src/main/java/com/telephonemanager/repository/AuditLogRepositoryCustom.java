@@ -0,0 +1,15 @@
+package com.telephonemanager.repository;
+
+import com.telephonemanager.entity.AuditLog;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+public interface AuditLogRepositoryCustom {
+    /**
+     * Export projection of the logs matching {@code filter}, in the column order of
+     * {@link AuditLogRepository#streamExportRows()}, over a forward-only cursor.
+     * Must be called inside a transaction and closed by the caller.
+     */
+    Stream<Object[]> streamExportRowsMatching(Specification<AuditLog> filter);
+}
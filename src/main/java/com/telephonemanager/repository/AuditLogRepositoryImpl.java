@@ -0,0 +1,42 @@
+package com.telephonemanager.repository;
+
+import com.telephonemanager.entity.AuditLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+/**
+ * Selects columns rather than entities, so a filtered export does not fill the
+ * persistence context with every log it streams.
+ */
+public class AuditLogRepositoryImpl implements AuditLogRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Object[]> streamExportRowsMatching(Specification<AuditLog> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<AuditLog> a = query.from(AuditLog.class);
+
+        query.multiselect(a.get("id"), a.get("occurredAt"), a.get("userId"), a.get("userEmail"), a.get("action"),
+                a.get("entityType"), a.get("entityId"), a.get("httpMethod"), a.get("path"), a.get("statusCode"),
+                a.get("ipAddress"), a.get("durationMs"), a.get("details"));
+        Predicate predicate = filter != null ? filter.toPredicate(a, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(a.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
@@ -0,0 +1,24 @@
+package com.telephonemanager.repository;
+
+import com.telephonemanager.entity.ExportTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+@Repository
+public interface ExportTombstoneRepository extends JpaRepository<ExportTombstone, Long> {
+
+    @Query("SELECT t.entityId FROM ExportTombstone t WHERE t.entity = :entity AND t.deletedAt >= :since ORDER BY t.entityId")
+    Stream<Long> streamDeletedIdsSince(@Param("entity") String entity, @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ExportTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteByDeletedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
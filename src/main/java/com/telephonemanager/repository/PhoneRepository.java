@@ -1,17 +1,29 @@
 package com.telephonemanager.repository;
 
+import com.telephonemanager.dto.DataWatermark;
+import com.telephonemanager.dto.DepartmentAggregate;
+import com.telephonemanager.dto.EntityLabel;
+import com.telephonemanager.dto.DeviceHolding;
+import com.telephonemanager.dto.IdRange;
+import com.telephonemanager.dto.StatusAggregate;
 import com.telephonemanager.entity.Phone;
 import com.telephonemanager.entity.Phone.Status;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PhoneRepository extends JpaRepository<Phone, Long> {
@@ -27,6 +39,11 @@ public interface PhoneRepository extends JpaRepository<Phone, Long> {
             Pageable pageable);
 
     // Dashboard methods
+    @Query("SELECT new com.telephonemanager.dto.StatusAggregate(p.status, COUNT(p), " +
+            "SUM(CASE WHEN p.assignedTo IS NOT NULL THEN 1 ELSE 0 END)) " +
+            "FROM Phone p GROUP BY p.status")
+    List<StatusAggregate<Status>> aggregateByStatus();
+
     long countByAssignedToIsNotNull();
 
     long countByStatus(Status status);
@@ -36,6 +53,52 @@ public interface PhoneRepository extends JpaRepository<Phone, Long> {
 
     List<Phone> findByStatusAndAssignedDateBefore(Status status, LocalDate date);
 
-    // Department-based queries - will be implemented when relationships are
-    // established
-}
\ No newline at end of file
+    List<Phone> findByAssignedToIsNotNullAndAssignedDateBefore(LocalDate date);
+
+    long countByAssignedToId(Long userId);
+
+    @Query("SELECT new com.telephonemanager.dto.DeviceHolding(u.id, u.name, COUNT(p)) " +
+           "FROM Phone p JOIN p.assignedTo u GROUP BY u.id, u.name")
+    List<DeviceHolding> countDevicesByHolder();
+
+    @Query("SELECT new com.telephonemanager.dto.DepartmentAggregate(u.department, COUNT(p), SUM(p.price)) " +
+           "FROM Phone p JOIN p.assignedTo u GROUP BY u.department")
+    List<DepartmentAggregate> aggregateAssignedByDepartment();
+
+    @Query("SELECT new com.telephonemanager.dto.EntityLabel(p.id, CONCAT(p.brand, ' ', p.model)) FROM Phone p WHERE p.id IN :ids")
+    List<EntityLabel> findLabelsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Export: flat projection over a forward-only cursor, columns in export order
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id, p.brand, p.model, p.imei1, p.imei2, p.status, u.id, u.name, p.assignedDate, p.notes " +
+           "FROM Phone p LEFT JOIN p.assignedTo u ORDER BY p.id")
+    Stream<Object[]> streamExportRows();
+
+    // Delta export: rows created or modified at or after the watermark
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id, p.brand, p.model, p.imei1, p.imei2, p.status, u.id, u.name, p.assignedDate, p.notes " +
+           "FROM Phone p LEFT JOIN p.assignedTo u WHERE p.updatedAt >= :since ORDER BY p.id")
+    Stream<Object[]> streamExportRowsChangedSince(@Param("since") LocalDateTime since);
+
+    // Parallel export: one primary-key range per worker
+    @Query("SELECT new com.telephonemanager.dto.IdRange(MIN(p.id), MAX(p.id)) FROM Phone p")
+    IdRange findIdRange();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id, p.brand, p.model, p.imei1, p.imei2, p.status, u.id, u.name, p.assignedDate, p.notes " +
+           "FROM Phone p LEFT JOIN p.assignedTo u WHERE p.id BETWEEN :fromId AND :toId ORDER BY p.id")
+    Stream<Object[]> streamExportRowsInRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Export job reuse: changes whenever a row is added, removed or modified
+    @Query("SELECT new com.telephonemanager.dto.DataWatermark(COUNT(p), MAX(p.updatedAt)) FROM Phone p")
+    DataWatermark findDataWatermark();
+}
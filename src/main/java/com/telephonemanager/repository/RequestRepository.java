@@ -1,17 +1,23 @@
 package com.telephonemanager.repository;
 
+import com.telephonemanager.dto.DataWatermark;
 import com.telephonemanager.entity.Request;
 import com.telephonemanager.entity.Request.Priority;
 import com.telephonemanager.entity.Request.Status;
 import com.telephonemanager.entity.Request.Type;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface RequestRepository extends JpaRepository<Request, Long> {
@@ -75,4 +81,28 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
     
     // Find requests by user
     List<Request> findByUserIdOrderByCreatedAtDesc(Long userId);
-} 
\ No newline at end of file
+
+    // Export: flat projection over a forward-only cursor, columns in export order
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r.id, u.id, u.name, u.email, r.type, r.title, r.description, r.status, r.priority, " +
+           "at.id, at.name, r.createdAt, r.updatedAt, r.resolvedAt, r.resolution " +
+           "FROM Request r LEFT JOIN r.user u LEFT JOIN r.assignedTo at ORDER BY r.id")
+    Stream<Object[]> streamExportRows();
+
+    // Delta export: rows created or modified at or after the watermark
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r.id, u.id, u.name, u.email, r.type, r.title, r.description, r.status, r.priority, " +
+           "at.id, at.name, r.createdAt, r.updatedAt, r.resolvedAt, r.resolution " +
+           "FROM Request r LEFT JOIN r.user u LEFT JOIN r.assignedTo at WHERE r.updatedAt >= :since ORDER BY r.id")
+    Stream<Object[]> streamExportRowsChangedSince(@Param("since") LocalDateTime since);
+
+    // Export job reuse: changes whenever a row is added, removed or modified
+    @Query("SELECT new com.telephonemanager.dto.DataWatermark(COUNT(r), MAX(r.updatedAt)) FROM Request r")
+    DataWatermark findDataWatermark();
+}
@@ -1,17 +1,28 @@
 package com.telephonemanager.repository;
 
+import com.telephonemanager.dto.DataWatermark;
+import com.telephonemanager.dto.DepartmentAggregate;
+import com.telephonemanager.dto.EntityLabel;
+import com.telephonemanager.dto.DeviceHolding;
+import com.telephonemanager.dto.StatusAggregate;
 import com.telephonemanager.entity.SimCard;
 import com.telephonemanager.entity.SimCard.Status;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SimCardRepository extends JpaRepository<SimCard, Long> {
@@ -29,15 +40,54 @@ public interface SimCardRepository extends JpaRepository<SimCard, Long> {
             Pageable pageable);
 
     // Dashboard methods
+    @Query("SELECT new com.telephonemanager.dto.StatusAggregate(s.status, COUNT(s), " +
+            "SUM(CASE WHEN s.assignedTo IS NOT NULL THEN 1 ELSE 0 END)) " +
+            "FROM SimCard s GROUP BY s.status")
+    List<StatusAggregate<Status>> aggregateByStatus();
+
     long countByAssignedToIsNotNull();
 
     long countByStatus(Status status);
 
     List<SimCard> findByStatusAndAssignedDateBefore(Status status, LocalDate date);
 
+    List<SimCard> findByExpiryDateBefore(LocalDate date);
+
+    long countByAssignedToId(Long userId);
+
+    @Query("SELECT new com.telephonemanager.dto.DeviceHolding(u.id, u.name, COUNT(s)) " +
+           "FROM SimCard s JOIN s.assignedTo u GROUP BY u.id, u.name")
+    List<DeviceHolding> countDevicesByHolder();
+
     @Query("SELECT s.carrier, COUNT(s) FROM SimCard s GROUP BY s.carrier")
     List<Object[]> findCarrierDistribution();
 
-    // Department-based queries - will be implemented when relationships are
-    // established
-}
\ No newline at end of file
+    @Query("SELECT new com.telephonemanager.dto.DepartmentAggregate(u.department, COUNT(s), SUM(s.monthlyFee)) " +
+           "FROM SimCard s JOIN s.assignedTo u GROUP BY u.department")
+    List<DepartmentAggregate> aggregateAssignedByDepartment();
+
+    @Query("SELECT new com.telephonemanager.dto.EntityLabel(s.id, s.number) FROM SimCard s WHERE s.id IN :ids")
+    List<EntityLabel> findLabelsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Export: flat projection over a forward-only cursor, columns in export order
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s.id, s.number, s.iccid, s.status, u.id, u.name, s.assignedDate, s.notes, s.pin, s.puk, s.poke " +
+           "FROM SimCard s LEFT JOIN s.assignedTo u ORDER BY s.id")
+    Stream<Object[]> streamExportRows();
+
+    // Delta export: rows created or modified at or after the watermark
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s.id, s.number, s.iccid, s.status, u.id, u.name, s.assignedDate, s.notes, s.pin, s.puk, s.poke " +
+           "FROM SimCard s LEFT JOIN s.assignedTo u WHERE s.updatedAt >= :since ORDER BY s.id")
+    Stream<Object[]> streamExportRowsChangedSince(@Param("since") LocalDateTime since);
+
+    // Export job reuse: changes whenever a row is added, removed or modified
+    @Query("SELECT new com.telephonemanager.dto.DataWatermark(COUNT(s), MAX(s.updatedAt)) FROM SimCard s")
+    DataWatermark findDataWatermark();
+}
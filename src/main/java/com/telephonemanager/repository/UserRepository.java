@@ -1,15 +1,25 @@
 package com.telephonemanager.repository;
 
+import com.telephonemanager.dto.DataWatermark;
+import com.telephonemanager.dto.DepartmentAggregate;
+import com.telephonemanager.dto.EntityLabel;
+import com.telephonemanager.dto.StatusAggregate;
 import com.telephonemanager.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -49,9 +59,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmailAndNotId(@Param("email") String email, @Param("id") Long id);
 
     // Dashboard methods
-    @Query("SELECT u.department, COUNT(u) FROM User u GROUP BY u.department")
-    List<Object[]> findDepartmentDistribution();
-    
-    // Assignment-based queries - using phone and sim card repositories instead
-    // These will be implemented in the service layer
-} 
\ No newline at end of file
+    @Query("SELECT new com.telephonemanager.dto.StatusAggregate(u.role, COUNT(u)) FROM User u GROUP BY u.role")
+    List<StatusAggregate<User.UserRole>> aggregateByRole();
+
+    @Query("SELECT new com.telephonemanager.dto.DepartmentAggregate(u.department, COUNT(u)) FROM User u GROUP BY u.department")
+    List<DepartmentAggregate> aggregateByDepartment();
+
+    @Query("SELECT new com.telephonemanager.dto.EntityLabel(u.id, u.name) FROM User u WHERE u.id IN :ids")
+    List<EntityLabel> findLabelsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Export: flat projection over a forward-only cursor, columns in export order
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.id, u.name, u.email, u.role, u.department, u.position, u.status, u.joinDate, " +
+           "u.phone, u.address, u.manager FROM User u ORDER BY u.id")
+    Stream<Object[]> streamExportRows();
+
+    // Delta export: rows created or modified at or after the watermark
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.id, u.name, u.email, u.role, u.department, u.position, u.status, u.joinDate, " +
+           "u.phone, u.address, u.manager FROM User u WHERE u.updatedAt >= :since ORDER BY u.id")
+    Stream<Object[]> streamExportRowsChangedSince(@Param("since") LocalDateTime since);
+
+    // Export job reuse: changes whenever a row is added, removed or modified
+    @Query("SELECT new com.telephonemanager.dto.DataWatermark(COUNT(u), MAX(u.updatedAt)) FROM User u")
+    DataWatermark findDataWatermark();
+}
@@ -1,12 +1,13 @@
 package com.telephonemanager.security;
 
-import com.telephonemanager.entity.User;
-import com.telephonemanager.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,15 +17,24 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    // Authenticated user's id, for request-scoped consumers such as the audit interceptor
+    public static final String USER_ID_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".userId";
 
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserRepository userRepository;
+    private PrincipalCache principalCache;
+
+    // Share of requests whose auth outcome is logged at INFO
+    @Value("${security.request-log.sample-rate:0.01}")
+    private double sampleRate;
 
     @Override
     protected void doFilterInternal(@org.springframework.lang.NonNull HttpServletRequest request, 
@@ -32,18 +42,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                   @org.springframework.lang.NonNull FilterChain filterChain) throws ServletException, IOException {
         
         String requestURI = request.getRequestURI();
-        String method = request.getMethod();
-        
-        System.out.println("=== JWT FILTER: Processing request ===");
-        System.out.println("Method: " + method);
-        System.out.println("URI: " + requestURI);
         
         // Skip JWT processing for login endpoint, test endpoints, and WebSocket endpoints
         if (requestURI.equals("/auth/login") || 
             requestURI.startsWith("/ws") ||
             requestURI.startsWith("/test") ||
             requestURI.startsWith("/simple-test")) {
-            System.out.println("=== JWT FILTER: Skipping authentication for: " + requestURI);
+            logOutcome(request, "SKIPPED", null, null);
             filterChain.doFilter(request, response);
             return;
         }
@@ -51,6 +56,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String authHeader = request.getHeader("Authorization");
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            logOutcome(request, "NO_TOKEN", null, null);
             filterChain.doFilter(request, response);
             return;
         }
@@ -58,54 +64,57 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             final String jwt = authHeader.substring(7);
             final String userEmail = jwtUtil.extractUsername(jwt);
-            
-            System.out.println("=== JWT FILTER: Extracted email: " + userEmail);
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                User user = userRepository.findByEmail(userEmail).orElse(null);
-                
-                System.out.println("=== JWT FILTER: User lookup result: " + (user != null ? "FOUND" : "NOT FOUND"));
-                if (user != null) {
-                    System.out.println("=== JWT FILTER: User ID: " + user.getId());
-                    System.out.println("=== JWT FILTER: User email: " + user.getEmail());
-                    System.out.println("=== JWT FILTER: User role: " + user.getRole());
-                    System.out.println("=== JWT FILTER: User status: " + user.getStatus());
-                }
-                
+                PrincipalCache.CachedPrincipal user = principalCache.get(userEmail).orElse(null);
                 boolean tokenValid = jwtUtil.validateToken(jwt);
-                System.out.println("=== JWT FILTER: Token validation result: " + tokenValid);
                 
-                if (user != null && tokenValid) {
-                    String role = user.getRole().name();
+                if (user != null && user.isActive() && tokenValid) {
+                    String role = user.role().name();
                     if (!role.startsWith("ROLE_")) {
                         role = "ROLE_" + role;
                     }
-                    System.out.println("=== JWT FILTER: Final role: " + role);
                     
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        user.getEmail(),
+                        user.email(),
                         null,
                         Collections.singletonList(new SimpleGrantedAuthority(role))
                     );
                     
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
-                    System.out.println("=== JWT FILTER: Authentication set successfully");
+                    request.setAttribute(USER_ID_ATTRIBUTE, user.id());
+                    logOutcome(request, "AUTHENTICATED", userEmail, role);
+                } else if (user == null) {
+                    logOutcome(request, "USER_NOT_FOUND", userEmail, null);
+                } else if (!user.isActive()) {
+                    logOutcome(request, "USER_INACTIVE", userEmail, null);
                 } else {
-                    System.out.println("=== JWT FILTER: Authentication failed");
-                    if (user == null) {
-                        System.out.println("=== JWT FILTER: Reason: User not found in database");
-                    }
-                    if (!tokenValid) {
-                        System.out.println("=== JWT FILTER: Reason: Token validation failed");
-                    }
+                    logOutcome(request, "TOKEN_INVALID", userEmail, null);
                 }
             }
         } catch (Exception e) {
-            System.out.println("=== JWT FILTER: Exception during authentication: " + e.getMessage());
-            e.printStackTrace();
+            logOutcome(request, "TOKEN_REJECTED", null, e.getClass().getSimpleName());
+            if (log.isDebugEnabled()) {
+                log.debug("JWT authentication failed for {} {}", request.getMethod(), requestURI, e);
+            }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * One line per request at DEBUG (off by default, enable on demand through
+     * logging.level), plus a random sample at INFO. Arguments are only formatted
+     * once a line is actually emitted.
+     */
+    private void logOutcome(HttpServletRequest request, String outcome, String user, String detail) {
+        if (log.isDebugEnabled()) {
+            log.debug("auth outcome={} method={} uri={} user={} detail={}",
+                    outcome, request.getMethod(), request.getRequestURI(), user, detail);
+        } else if (sampleRate > 0 && log.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.info("auth sample outcome={} method={} uri={} user={} detail={}",
+                    outcome, request.getMethod(), request.getRequestURI(), user, detail);
+        }
+    }
 } 
\ No newline at end of file
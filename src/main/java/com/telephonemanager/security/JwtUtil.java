@@ -3,19 +3,39 @@ package com.telephonemanager.security;
 import com.telephonemanager.entity.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs. A token's signature is verified once; its claims are then
+ * served from a bounded cache, keyed by the token string itself, until the token expires.
+ * Lookups cost a string hash and compare rather than a digest of the token. At capacity
+ * the entry closest to expiry makes room for the new one, found in O(log n) through an
+ * expiry-ordered index; expired entries are swept by the scheduled job only.
+ */
 @Component
 public class JwtUtil {
 
@@ -25,8 +45,33 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.claims-cache.max-entries:10000}")
+    private int claimsCacheMaxEntries;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    private record VerifiedToken(String token, Claims claims, long expiresAtMillis, long sequence) {
+    }
+
+    private static final Comparator<VerifiedToken> BY_EXPIRY =
+            Comparator.comparingLong(VerifiedToken::expiresAtMillis).thenComparingLong(VerifiedToken::sequence);
+
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<VerifiedToken> byExpiry = new ConcurrentSkipListSet<>(BY_EXPIRY);
+    private final AtomicLong sequence = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
     }
 
     public String extractUsername(String token) {
@@ -37,20 +82,84 @@ public class JwtUtil {
         return extractClaim(token, Claims::getExpiration);
     }
 
+    /**
+     * Id used for revocation: the jti, or a hash of the whole token for tokens
+     * issued before jti was added.
+     */
+    public String extractTokenId(String token) {
+        return tokenId(extractAllClaims(token), token);
+    }
+
+    public void revokeToken(String token) {
+        tokenRevocationStore.revoke(extractTokenId(token), extractExpiration(token));
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Returns the claims of a signed, unexpired token, verifying the signature only on
+     * the first sight of the token. Throws JwtException for invalid or expired tokens.
+     */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .parseClaimsJws(token)
-                .getBody();
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (System.currentTimeMillis() < cached.expiresAtMillis()) {
+                return cached.claims();
+            }
+            evict(cached);
+        }
+        // Throws ExpiredJwtException once the token is past its expiry
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            VerifiedToken verified = new VerifiedToken(token, claims, claims.getExpiration().getTime(),
+                    sequence.incrementAndGet());
+            if (verifiedTokens.putIfAbsent(token, verified) == null) {
+                byExpiry.add(verified);
+                // Over capacity: drop whichever entries expire first, the cheapest to re-verify
+                while (verifiedTokens.size() > claimsCacheMaxEntries) {
+                    VerifiedToken earliest = byExpiry.pollFirst();
+                    if (earliest == null) {
+                        break;
+                    }
+                    verifiedTokens.remove(earliest.token(), earliest);
+                }
+            }
+        }
+        return claims;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.claims-cache.cleanup-interval:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        // Ascending expiry: stops at the first live entry
+        for (VerifiedToken verified : byExpiry) {
+            if (verified.expiresAtMillis() > now) {
+                break;
+            }
+            evict(verified);
+        }
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private void evict(VerifiedToken verified) {
+        byExpiry.remove(verified);
+        verifiedTokens.remove(verified.token(), verified);
+    }
+
+    private static String tokenId(Claims claims, String token) {
+        String jti = claims.getId();
+        return jti != null ? jti : hash(token);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public String generateToken(User user) {
@@ -64,6 +173,7 @@ public class JwtUtil {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
@@ -72,15 +182,15 @@ public class JwtUtil {
 
     public Boolean validateToken(String token, UserDetails userDetails) {
         final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return (username.equals(userDetails.getUsername()) && validateToken(token));
     }
 
     public Boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .parseClaimsJws(token);
-            return !isTokenExpired(token);
+            // One claims lookup for the expiry and revocation checks
+            Claims claims = extractAllClaims(token);
+            return !claims.getExpiration().before(new Date())
+                    && !tokenRevocationStore.isRevoked(tokenId(claims, token));
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
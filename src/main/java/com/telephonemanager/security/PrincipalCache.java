@@ -0,0 +1,84 @@
+package com.telephonemanager.security;
+
+import com.telephonemanager.entity.User;
+import com.telephonemanager.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived cache of the fields authentication needs (id, role, status) keyed by
+ * email, so authenticating a request does not query the users table. UserService
+ * invalidates entries when a user changes or is deleted; the TTL bounds how long a
+ * change made any other way (e.g. directly in the database) can go unnoticed.
+ */
+@Component
+public class PrincipalCache {
+
+    public record CachedPrincipal(Long id, String email, User.UserRole role, User.UserStatus status) {
+        public boolean isActive() {
+            return status == User.UserStatus.ACTIVE;
+        }
+    }
+
+    private record Entry(CachedPrincipal principal, long loadedAtMillis) {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${security.principal-cache.ttl:30000}")
+    private long ttlMillis;
+
+    @Value("${security.principal-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped by every invalidation; a load that raced one is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public Optional<CachedPrincipal> get(String email) {
+        Entry entry = entries.get(email);
+        if (entry != null && System.currentTimeMillis() - entry.loadedAtMillis() < ttlMillis) {
+            return Optional.of(entry.principal());
+        }
+        long invalidationsBefore = invalidations.get();
+        long loadedAt = System.currentTimeMillis();
+        Optional<CachedPrincipal> principal = userRepository.findByEmail(email)
+                .map(user -> new CachedPrincipal(user.getId(), user.getEmail(), user.getRole(), user.getStatus()));
+        if (principal.isEmpty()) {
+            entries.remove(email);
+            return principal;
+        }
+        if (entries.size() >= maxEntries) {
+            evictExpired();
+        }
+        if (entries.size() < maxEntries && invalidations.get() == invalidationsBefore) {
+            entries.put(email, new Entry(principal.get(), loadedAt));
+        }
+        return principal;
+    }
+
+    /**
+     * Drops the cached principal of an email. Call after the change is committed,
+     * so the next request reloads the new state.
+     */
+    public void invalidate(String email) {
+        invalidations.incrementAndGet();
+        if (email != null) {
+            entries.remove(email);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.principal-cache.ttl:30000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> now - entry.loadedAtMillis() >= ttlMillis);
+    }
+}
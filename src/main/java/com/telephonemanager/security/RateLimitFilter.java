@@ -0,0 +1,141 @@
+package com.telephonemanager.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the rate-limit section of the configuration. Runs ahead of
+ * JwtAuthenticationFilter, so callers are identified from the token's subject
+ * (served from JwtUtil's verified-token cache) and fall back to the client IP.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    enum EndpointClass {
+        AUTH(TimeUnit.MINUTES), GENERAL(TimeUnit.MINUTES), UPLOAD(TimeUnit.MINUTES),
+        EXPORT(TimeUnit.HOURS), SYSTEM(TimeUnit.MINUTES);
+
+        final long periodNanos;
+
+        EndpointClass(TimeUnit period) {
+            this.periodNanos = period.toNanos(1);
+        }
+    }
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    private final RateLimiter limiter;
+    private final Map<EndpointClass, Integer> limits = new HashMap<>();
+
+    public RateLimitFilter(@Value("${rate-limit.max-keys:100000}") int maxKeys,
+            @Value("${rate-limit.auth:5}") int auth,
+            @Value("${rate-limit.general:100}") int general,
+            @Value("${rate-limit.upload:10}") int upload,
+            @Value("${rate-limit.export:5}") int export,
+            @Value("${rate-limit.system:10}") int system) {
+        this.limiter = new RateLimiter(maxKeys);
+        limits.put(EndpointClass.AUTH, auth);
+        limits.put(EndpointClass.GENERAL, general);
+        limits.put(EndpointClass.UPLOAD, upload);
+        limits.put(EndpointClass.EXPORT, export);
+        limits.put(EndpointClass.SYSTEM, system);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = pathOf(request);
+        return !enabled || "OPTIONS".equals(request.getMethod()) || path.startsWith("/ws");
+    }
+
+    @Override
+    protected void doFilterInternal(@org.springframework.lang.NonNull HttpServletRequest request,
+                                  @org.springframework.lang.NonNull HttpServletResponse response,
+                                  @org.springframework.lang.NonNull FilterChain filterChain) throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request.getMethod(), pathOf(request));
+        String caller = callerOf(request, endpointClass);
+        long wait = limiter.tryAcquire(endpointClass.name() + "|" + caller, endpointClass.name(),
+                limits.get(endpointClass), endpointClass.periodNanos, System.nanoTime());
+        if (wait > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999L));
+            Map<String, Object> body = new HashMap<>();
+            body.put("success", false);
+            body.put("error", Map.of(
+                "code", "RATE_LIMITED",
+                "message", "Too many requests, retry in " + retryAfterSeconds + " seconds"
+            ));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), body);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.idle-sweep-interval:60000}")
+    public void evictIdleBuckets() {
+        limiter.evictIdle(System.nanoTime());
+    }
+
+    static EndpointClass classify(String method, String path) {
+        if (path.startsWith("/auth/login")) {
+            return EndpointClass.AUTH;
+        }
+        if (path.startsWith("/files/upload")) {
+            return EndpointClass.UPLOAD;
+        }
+        if (path.startsWith("/settings/system")) {
+            return EndpointClass.SYSTEM;
+        }
+        // Polling a job's status or fetching its result is not a new export
+        if ((path.startsWith("/export") && !(path.startsWith("/export/jobs/") && "GET".equals(method)))
+                || path.startsWith("/audit-logs/export")) {
+            return EndpointClass.EXPORT;
+        }
+        return EndpointClass.GENERAL;
+    }
+
+    // Logins are limited per client address so a caller cannot reset its budget by switching accounts
+    private String callerOf(HttpServletRequest request, EndpointClass endpointClass) {
+        String authHeader = request.getHeader("Authorization");
+        if (endpointClass != EndpointClass.AUTH && authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                String email = jwtUtil.extractUsername(authHeader.substring(7));
+                if (email != null) {
+                    return "user:" + email;
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // Invalid tokens are limited by address; JwtAuthenticationFilter rejects them
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,63 @@
+package com.telephonemanager.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by string, one per caller and endpoint class. Each bucket is a
+ * single AtomicLong holding its theoretical arrival time (the GCRA form of a token
+ * bucket): a request is admitted by one CAS, so there are no locks on the hot path and
+ * the map's own striping is the only contention between keys.
+ * <p>
+ * A bucket whose arrival time has passed is full, and a full bucket behaves exactly
+ * like a missing one, so idle buckets can be evicted without losing any state. Eviction
+ * is left to the periodic {@link #evictIdle} sweep: while the map is full, new keys
+ * share their overflow bucket instead of scanning the map on the request thread.
+ */
+public class RateLimiter {
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final int maxKeys;
+    // Shared by new keys while the map is full of active buckets
+    private final ConcurrentHashMap<String, AtomicLong> overflow = new ConcurrentHashMap<>();
+
+    public RateLimiter(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Takes one token from the bucket of {@code key}, which refills {@code limit} tokens
+     * per {@code periodNanos} and holds at most {@code limit}. Returns 0 if admitted,
+     * otherwise the nanoseconds until a token is available.
+     */
+    public long tryAcquire(String key, String overflowKey, int limit, long periodNanos, long nowNanos) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.size() < maxKeys
+                    ? buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos))
+                    : overflow.computeIfAbsent(overflowKey, k -> new AtomicLong(nowNanos));
+        }
+        long interval = periodNanos / limit;
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, nowNanos) + interval;
+            // Admitted while the bucket is at most one period ahead of now, i.e. holds a token
+            long wait = next - periodNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /** Drops every bucket that has refilled completely. */
+    public void evictIdle(long nowNanos) {
+        buckets.values().removeIf(bucket -> bucket.get() - nowNanos <= 0);
+        overflow.values().removeIf(bucket -> bucket.get() - nowNanos <= 0);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
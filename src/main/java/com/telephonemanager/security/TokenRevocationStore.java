@@ -0,0 +1,93 @@
+package com.telephonemanager.security;
+
+import com.telephonemanager.entity.RevokedToken;
+import com.telephonemanager.repository.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked token ids, persisted in revoked_tokens and mirrored in memory as a Bloom
+ * filter in front of an exact map of id to expiry. A token that was never revoked is
+ * almost always answered by the filter alone; only filter hits consult the map.
+ * <p>
+ * The filter cannot forget entries, so it is rebuilt from the unexpired rows on every
+ * refresh, which also picks up revocations made by other instances.
+ */
+@Component
+public class TokenRevocationStore {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${security.revocation.expected-tokens:100000}")
+    private int expectedTokens;
+
+    @Value("${security.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter = new BloomFilter(1, 0.01);
+
+    public boolean isRevoked(String tokenId) {
+        if (!filter.mightContain(tokenId)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenId);
+        return expiresAt != null && System.currentTimeMillis() < expiresAt;
+    }
+
+    public void revoke(String tokenId, Date expiresAt) {
+        // Visible locally before the insert, so the caller's next request is already refused
+        revoked.put(tokenId, expiresAt.getTime());
+        filter.add(tokenId);
+        if (!revokedTokenRepository.existsByTokenId(tokenId)) {
+            try {
+                revokedTokenRepository.save(new RevokedToken(tokenId,
+                        LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault())));
+            } catch (DataIntegrityViolationException e) {
+                // Revoked concurrently, e.g. a repeated logout
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    /**
+     * Drops expired ids, reloads the table and swaps in a freshly built filter.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.refresh-interval:60000}",
+            initialDelayString = "${security.revocation.refresh-interval:60000}")
+    public synchronized void refresh() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            revokedTokenRepository.deleteByExpiresAtBefore(now);
+            for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(now)) {
+                revoked.put(token.getTokenId(), token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+            long nowMillis = System.currentTimeMillis();
+            revoked.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, revoked.size() * 2), falsePositiveRate);
+            revoked.keySet().forEach(rebuilt::add);
+            filter = rebuilt;
+            // Ids revoked while the filter was being built went into the old one
+            revoked.keySet().forEach(rebuilt::add);
+        } catch (Exception e) {
+            System.err.println("Token revocation refresh failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.telephonemanager.security;
+
+import com.telephonemanager.service.DashboardPushService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authenticates STOMP sessions with the same JWT as the REST API (sent in the
+ * Authorization header of the CONNECT frame) and restricts subscriptions by role.
+ * The token's id and expiry are kept per session and checked again, together with the
+ * user's current status and role, on every SUBSCRIBE and before every message pushed
+ * to the session; a session that fails is sent an ERROR frame, which closes it.
+ */
+@Component
+public class WebSocketAuthInterceptor implements ChannelInterceptor {
+
+    // Topics clients may subscribe to and the roles allowed on each
+    private static final Map<String, Set<String>> TOPIC_ROLES = Map.of(
+            DashboardPushService.DASHBOARD_TOPIC, Set.of("ROLE_ADMIN", "ROLE_ASSIGNER"));
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    // Token a session connected with
+    private record SessionGrant(String email, String tokenId, Date expiresAt) {
+    }
+
+    private final Map<String, SessionGrant> grants = new ConcurrentHashMap<>();
+
+    // Checks messages the broker pushes to clients; register on the client outbound channel
+    private final ChannelInterceptor outboundInterceptor = new ChannelInterceptor() {
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            return checkPush(message);
+        }
+    };
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (accessor.getMessageType() == SimpMessageType.DISCONNECT) {
+            grants.remove(accessor.getSessionId());
+            return message;
+        }
+        if (accessor.getCommand() == null) {
+            return message;
+        }
+
+        StompCommand command = accessor.getCommand();
+        if (command == StompCommand.CONNECT) {
+            accessor.setUser(authenticate(accessor.getSessionId(), accessor.getFirstNativeHeader("Authorization")));
+        } else if (command == StompCommand.SUBSCRIBE) {
+            authorizeSubscription(accessor.getSessionId(), accessor.getUser(), accessor.getDestination());
+        } else if (command == StompCommand.SEND) {
+            throw new MessagingException("Sending messages is not supported");
+        }
+        return message;
+    }
+
+    public ChannelInterceptor outboundInterceptor() {
+        return outboundInterceptor;
+    }
+
+    private Authentication authenticate(String sessionId, String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new MessagingException("Missing bearer token");
+        }
+        String jwt = authHeader.substring(7);
+        if (!jwtUtil.validateToken(jwt)) {
+            throw new MessagingException("Invalid or expired token");
+        }
+        SessionGrant grant = new SessionGrant(jwtUtil.extractUsername(jwt), jwtUtil.extractTokenId(jwt),
+                jwtUtil.extractExpiration(jwt));
+        PrincipalCache.CachedPrincipal user = principalCache.get(grant.email())
+                .orElseThrow(() -> new MessagingException("User not found"));
+        if (!user.isActive()) {
+            throw new MessagingException("User is not active");
+        }
+        if (sessionId != null) {
+            grants.put(sessionId, grant);
+        }
+        return new UsernamePasswordAuthenticationToken(user.email(), null,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.role().name())));
+    }
+
+    private void authorizeSubscription(String sessionId, Principal principal, String destination) {
+        if (!(principal instanceof Authentication)) {
+            throw new MessagingException("Not authenticated");
+        }
+        String denied = checkGrant(sessionId, destination);
+        if (denied != null) {
+            grants.remove(sessionId);
+            throw new MessagingException(denied);
+        }
+    }
+
+    private Message<?> checkPush(Message<?> message) {
+        MessageHeaders headers = message.getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        if (sessionId == null || !grants.containsKey(sessionId)) {
+            // Session already refused; drop anything still routed to it
+            return null;
+        }
+        String denied = checkGrant(sessionId, SimpMessageHeaderAccessor.getDestination(headers));
+        if (denied == null) {
+            return message;
+        }
+        grants.remove(sessionId);
+        // Sending an ERROR frame makes the STOMP handler close the WebSocket session
+        StompHeaderAccessor error = StompHeaderAccessor.create(StompCommand.ERROR);
+        error.setMessage(denied);
+        error.setSessionId(sessionId);
+        return MessageBuilder.createMessage(new byte[0], error.getMessageHeaders());
+    }
+
+    /**
+     * Returns why the session may no longer receive messages from the destination,
+     * or null when it may.
+     */
+    private String checkGrant(String sessionId, String destination) {
+        SessionGrant grant = sessionId != null ? grants.get(sessionId) : null;
+        if (grant == null) {
+            return "Not authenticated";
+        }
+        if (grant.expiresAt() != null && !grant.expiresAt().after(new Date())) {
+            return "Token expired";
+        }
+        if (tokenRevocationStore.isRevoked(grant.tokenId())) {
+            return "Token revoked";
+        }
+        PrincipalCache.CachedPrincipal user = principalCache.get(grant.email()).orElse(null);
+        if (user == null || !user.isActive()) {
+            return "User is not active";
+        }
+        Set<String> allowedRoles = TOPIC_ROLES.get(destination);
+        if (allowedRoles == null || !allowedRoles.contains("ROLE_" + user.role().name())) {
+            return "Access denied to " + destination;
+        }
+        return null;
+    }
+}
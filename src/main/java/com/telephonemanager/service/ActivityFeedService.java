@@ -0,0 +1,126 @@
+package com.telephonemanager.service;
+
+import com.telephonemanager.dto.AssignmentHistoryDto;
+import com.telephonemanager.dto.EntityLabel;
+import com.telephonemanager.entity.AssignmentHistory;
+import com.telephonemanager.repository.AssignmentHistoryRepository;
+import com.telephonemanager.repository.PhoneRepository;
+import com.telephonemanager.repository.SimCardRepository;
+import com.telephonemanager.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Assignment history feed, newest first. Pages are fetched by keyset on (date, id),
+ * so any page costs the same as the first, and each page is enriched with user,
+ * phone and SIM names using one IN query per entity type.
+ */
+@Service
+public class ActivityFeedService {
+    @Autowired
+    private AssignmentHistoryRepository historyRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PhoneRepository phoneRepository;
+    @Autowired
+    private SimCardRepository simCardRepository;
+
+    public Map<String, Object> getFeed(String cursor, int limit, AssignmentHistory.Type type,
+            AssignmentHistory.Action action, Long userId) {
+        LocalDateTime cursorDate = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            cursorDate = LocalDateTime.parse(position[0]);
+            cursorId = Long.parseLong(position[1]);
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<AssignmentHistory> rows = historyRepository.findFeedPage(type, action, userId, cursorDate, cursorId, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+
+        List<AssignmentHistoryDto> activities = enrich(rows);
+        AssignmentHistory last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+
+        Map<String, Object> feed = new HashMap<>();
+        feed.put("activities", activities);
+        feed.put("count", activities.size());
+        feed.put("hasMore", hasMore);
+        feed.put("nextCursor", hasMore ? encodeCursor(last) : null);
+        return feed;
+    }
+
+    public List<AssignmentHistoryDto> enrich(List<AssignmentHistory> rows) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> phoneIds = new HashSet<>();
+        Set<Long> simIds = new HashSet<>();
+        for (AssignmentHistory h : rows) {
+            if (h.getFromUserId() != null) {
+                userIds.add(h.getFromUserId());
+            }
+            if (h.getToUserId() != null) {
+                userIds.add(h.getToUserId());
+            }
+            (h.getType() == AssignmentHistory.Type.PHONE ? phoneIds : simIds).add(h.getItemId());
+        }
+
+        Map<Long, String> userNames = labels(userIds, userRepository::findLabelsByIdIn);
+        Map<Long, String> phoneNames = labels(phoneIds, phoneRepository::findLabelsByIdIn);
+        Map<Long, String> simNames = labels(simIds, simCardRepository::findLabelsByIdIn);
+
+        List<AssignmentHistoryDto> activities = new ArrayList<>(rows.size());
+        for (AssignmentHistory h : rows) {
+            AssignmentHistoryDto dto = new AssignmentHistoryDto(h);
+            dto.setItemName((h.getType() == AssignmentHistory.Type.PHONE ? phoneNames : simNames).get(h.getItemId()));
+            dto.setFromUserName(userNames.get(h.getFromUserId()));
+            dto.setToUserName(userNames.get(h.getToUserId()));
+            activities.add(dto);
+        }
+        return activities;
+    }
+
+    private static Map<Long, String> labels(Set<Long> ids, Function<Collection<Long>, List<EntityLabel>> query) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return query.apply(ids).stream()
+                .filter(label -> label.getLabel() != null)
+                .collect(Collectors.toMap(EntityLabel::getId, EntityLabel::getLabel));
+    }
+
+    private static String encodeCursor(AssignmentHistory h) {
+        String position = h.getDate() + "|" + h.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
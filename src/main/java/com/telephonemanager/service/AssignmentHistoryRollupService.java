@@ -0,0 +1,124 @@
+package com.telephonemanager.service;
+
+import com.telephonemanager.dto.MonthlyHistoryCount;
+import com.telephonemanager.entity.AssignmentHistory.Action;
+import com.telephonemanager.entity.AssignmentHistory.Type;
+import com.telephonemanager.entity.AssignmentHistoryMonthly;
+import com.telephonemanager.repository.AssignmentHistoryMonthlyRepository;
+import com.telephonemanager.repository.AssignmentHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Maintains the (month, type, action) rollup of assignment history so monthly
+ * statistics are read from a handful of pre-aggregated rows instead of scanning
+ * the ever-growing history table.
+ * History writers hold the read side of a lock until their transaction completes;
+ * a rebuild takes the write side, so no history row or increment can commit between
+ * its grouped scan and its commit.
+ */
+@Service
+public class AssignmentHistoryRollupService {
+    private static final Logger log = LoggerFactory.getLogger(AssignmentHistoryRollupService.class);
+
+    @Autowired
+    private AssignmentHistoryMonthlyRepository rollupRepository;
+    @Autowired
+    private AssignmentHistoryRepository historyRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    /**
+     * Must be called before a history row is written. Blocks while a rebuild runs and
+     * keeps rebuilds out until the caller's transaction completes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void beginRecording() {
+        ReentrantReadWriteLock.ReadLock readLock = rebuildLock.readLock();
+        readLock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                readLock.unlock();
+            }
+        });
+    }
+
+    @Transactional
+    public void increment(Type type, Action action, LocalDateTime date) {
+        LocalDate monthStart = date.toLocalDate().withDayOfMonth(1);
+        if (rollupRepository.increment(monthStart, type, action, 1) == 0) {
+            createBucket(monthStart, type, action);
+            rollupRepository.increment(monthStart, type, action, 1);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<AssignmentHistoryMonthly> getRollup(Type type, LocalDate fromMonth, LocalDate toMonth) {
+        return rollupRepository.findByTypeAndMonthStartBetweenOrderByMonthStart(type, fromMonth, toMonth);
+    }
+
+    /**
+     * Rebuilds the whole rollup from the raw history with a single grouped scan.
+     * Returns the number of rollup rows written.
+     */
+    public int rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            Integer rows = new TransactionTemplate(transactionManager).execute(status -> {
+                rollupRepository.deleteAllInBatch();
+                List<MonthlyHistoryCount> counts = historyRepository.countByMonthTypeAndAction();
+                rollupRepository.saveAll(counts.stream()
+                        .map(c -> new AssignmentHistoryMonthly(c.getMonthStart(), c.getType(), c.getAction(), c.getCount()))
+                        .toList());
+                return counts.size();
+            });
+            log.info("Assignment history rollup rebuilt: {} rows", rows);
+            return rows;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0 && historyRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    // Buckets are created in their own transaction so that two writers racing on a
+    // new month only cost the loser a retry of the UPDATE
+    private void createBucket(LocalDate monthStart, Type type, Action action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            template.executeWithoutResult(status -> {
+                if (!rollupRepository.existsByMonthStartAndTypeAndAction(monthStart, type, action)) {
+                    rollupRepository.saveAndFlush(new AssignmentHistoryMonthly(monthStart, type, action, 0));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently by another writer
+        }
+    }
+}
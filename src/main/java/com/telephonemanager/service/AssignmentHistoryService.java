@@ -4,9 +4,12 @@ import com.telephonemanager.dto.AssignmentHistoryDto;
 import com.telephonemanager.entity.AssignmentHistory;
 import com.telephonemanager.entity.AssignmentHistory.Action;
 import com.telephonemanager.entity.AssignmentHistory.Type;
+import com.telephonemanager.event.AssignmentRecordedEvent;
 import com.telephonemanager.repository.AssignmentHistoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -16,13 +19,20 @@ import java.util.stream.Collectors;
 public class AssignmentHistoryService {
     @Autowired
     private AssignmentHistoryRepository historyRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private AssignmentHistoryRollupService rollupService;
 
+    @Transactional
     public void record(Type type, Long itemId, Long fromUserId, Long toUserId, Action action, String notes) {
         record(type, itemId, fromUserId, toUserId, action, notes, null);
     }
 
+    @Transactional
     public void record(Type type, Long itemId, Long fromUserId, Long toUserId, Action action, String notes,
             Double remainingValue) {
+        rollupService.beginRecording();
         AssignmentHistory h = new AssignmentHistory();
         h.setType(type);
         h.setItemId(itemId);
@@ -32,7 +42,9 @@ public class AssignmentHistoryService {
         h.setDate(LocalDateTime.now());
         h.setNotes(notes);
         h.setRemainingValue(remainingValue);
-        historyRepository.save(h);
+        AssignmentHistory saved = historyRepository.save(h);
+        rollupService.increment(type, action, saved.getDate());
+        eventPublisher.publishEvent(new AssignmentRecordedEvent(saved));
     }
 
     public List<AssignmentHistoryDto> getHistoryByPhone(Long phoneId) {
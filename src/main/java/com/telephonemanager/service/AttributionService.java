@@ -6,11 +6,14 @@ import com.telephonemanager.entity.Attribution.Status;
 import com.telephonemanager.entity.Phone;
 import com.telephonemanager.entity.SimCard;
 import com.telephonemanager.entity.User;
+import com.telephonemanager.event.InventoryChangeEvent;
+import com.telephonemanager.event.InventoryChangeEvent.ItemState;
 import com.telephonemanager.repository.AttributionRepository;
 import com.telephonemanager.repository.PhoneRepository;
 import com.telephonemanager.repository.SimCardRepository;
 import com.telephonemanager.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -40,6 +43,9 @@ public class AttributionService {
     
     @Autowired
     private AssignmentHistoryService assignmentHistoryService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public Page<AttributionDto> getAttributions(int page, int limit, Status status, Long userId, Long assignedById, String search) {
         Pageable pageable = PageRequest.of(page - 1, limit);
@@ -105,13 +111,18 @@ public class AttributionService {
         attribution.setNotes(dto.getNotes());
         
         Attribution saved = attributionRepository.save(attribution);
+        publishChange(InventoryChangeEvent.ItemType.ATTRIBUTION, InventoryChangeEvent.Action.CREATE,
+            saved.getId(), null, ItemState.of(saved));
         
         // Update phone and SIM card status if assigned
         if (phone != null) {
+            ItemState before = ItemState.of(phone);
             phone.setStatus(Phone.Status.ASSIGNED);
             phone.setAssignedTo(user);
             phone.setAssignedDate(attribution.getAssignmentDate());
             phoneRepository.save(phone);
+            publishChange(InventoryChangeEvent.ItemType.PHONE, InventoryChangeEvent.Action.ASSIGN,
+                phone.getId(), before, ItemState.of(phone));
             
             // Record assignment history
             assignmentHistoryService.record(
@@ -125,10 +136,13 @@ public class AttributionService {
         }
         
         if (simCard != null) {
+            ItemState before = ItemState.of(simCard);
             simCard.setStatus(SimCard.Status.ASSIGNED);
             simCard.setAssignedTo(user);
             simCard.setAssignedDate(attribution.getAssignmentDate());
             simCardRepository.save(simCard);
+            publishChange(InventoryChangeEvent.ItemType.SIM, InventoryChangeEvent.Action.ASSIGN,
+                simCard.getId(), before, ItemState.of(simCard));
             
             // Record assignment history
             assignmentHistoryService.record(
@@ -156,6 +170,7 @@ public class AttributionService {
             .orElseThrow(() -> new RuntimeException("Attribution not found"));
         
         System.out.println("=== ATTRIBUTION SERVICE: Current status: " + attribution.getStatus());
+        ItemState before = ItemState.of(attribution);
         
         // Update allowed fields: notes, status, assignmentDate, returnDate
         attribution.setNotes(dto.getNotes());
@@ -189,6 +204,7 @@ public class AttributionService {
         
         // Persist via repository save and enforce via direct update query (belt-and-suspenders)
         Attribution saved = attributionRepository.save(attribution);
+        ItemState after = ItemState.of(saved);
         attributionRepository.updateCoreFields(
             saved.getId(),
             saved.getAssignmentDate(),
@@ -197,6 +213,8 @@ public class AttributionService {
             saved.getNotes()
         );
         System.out.println("=== ATTRIBUTION SERVICE: Saved status: " + saved.getStatus());
+        publishChange(InventoryChangeEvent.ItemType.ATTRIBUTION, InventoryChangeEvent.Action.UPDATE,
+            saved.getId(), before, after);
         return new AttributionDto(saved);
     }
 
@@ -210,6 +228,8 @@ public class AttributionService {
         }
         
         attributionRepository.deleteById(id);
+        publishChange(InventoryChangeEvent.ItemType.ATTRIBUTION, InventoryChangeEvent.Action.DELETE,
+            id, ItemState.of(attribution), null);
     }
 
     public AttributionDto returnAttribution(Long id, String notes, Long returnedById) {
@@ -220,6 +240,7 @@ public class AttributionService {
             throw new RuntimeException("Attribution is not active and cannot be returned");
         }
         
+        ItemState attributionBefore = ItemState.of(attribution);
         attribution.setStatus(Status.RETURNED);
         attribution.setReturnDate(LocalDate.now());
         attribution.setNotes(notes != null ? notes : attribution.getNotes());
@@ -230,14 +251,19 @@ public class AttributionService {
         }
         
         Attribution saved = attributionRepository.save(attribution);
+        publishChange(InventoryChangeEvent.ItemType.ATTRIBUTION, InventoryChangeEvent.Action.RETURN,
+            saved.getId(), attributionBefore, ItemState.of(saved));
         
         // Update phone status if present
         if (attribution.getPhone() != null) {
             Phone phone = attribution.getPhone();
+            ItemState before = ItemState.of(phone);
             phone.setStatus(Phone.Status.AVAILABLE);
             phone.setAssignedTo(null);
             phone.setAssignedDate(null);
             phoneRepository.save(phone);
+            publishChange(InventoryChangeEvent.ItemType.PHONE, InventoryChangeEvent.Action.UNASSIGN,
+                phone.getId(), before, ItemState.of(phone));
             
             // Record unassignment history
             assignmentHistoryService.record(
@@ -253,10 +279,13 @@ public class AttributionService {
         // Update SIM card status if present
         if (attribution.getSimCard() != null) {
             SimCard simCard = attribution.getSimCard();
+            ItemState before = ItemState.of(simCard);
             simCard.setStatus(SimCard.Status.AVAILABLE);
             simCard.setAssignedTo(null);
             simCard.setAssignedDate(null);
             simCardRepository.save(simCard);
+            publishChange(InventoryChangeEvent.ItemType.SIM, InventoryChangeEvent.Action.UNASSIGN,
+                simCard.getId(), before, ItemState.of(simCard));
             
             // Record unassignment history
             assignmentHistoryService.record(
@@ -286,4 +315,9 @@ public class AttributionService {
         List<Attribution> attributions = attributionRepository.findByUserIdAndStatus(userId, Status.ACTIVE);
         return attributions.stream().map(AttributionDto::new).collect(Collectors.toList());
     }
-} 
\ No newline at end of file
+
+    private void publishChange(InventoryChangeEvent.ItemType itemType, InventoryChangeEvent.Action action,
+                               Long itemId, ItemState before, ItemState after) {
+        eventPublisher.publishEvent(new InventoryChangeEvent(itemType, action, itemId, before, after));
+    }
+}
@@ -0,0 +1,96 @@
+package com.telephonemanager.service;
+
+import com.telephonemanager.entity.AuditLog;
+import com.telephonemanager.entity.AuditLogHourly;
+import com.telephonemanager.repository.AuditLogHourlyRepository;
+import com.telephonemanager.repository.AuditLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the hourly (action, entity type, user) rollup of the audit log, so the
+ * audit summary merges a bounded number of buckets per hour of the requested range
+ * instead of scanning the log itself.
+ */
+@Service
+public class AuditLogRollupService {
+    private static final String UPDATE_SQL = "UPDATE audit_log_hourly SET record_count = record_count + ?, " +
+            "user_email = COALESCE(?, user_email) " +
+            "WHERE hour_start = ? AND action = ? AND entity_type = ? AND user_id = ?";
+    private static final String INSERT_SQL = "INSERT INTO audit_log_hourly " +
+            "(hour_start, action, entity_type, user_id, user_email, record_count) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private AuditLogHourlyRepository rollupRepository;
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    private record BucketKey(LocalDateTime hourStart, String action, String entityType, long userId) {
+    }
+
+    /**
+     * Adds a batch of entries to their buckets. Must run in the transaction that
+     * inserts the batch; AuditLogWriter is the only caller, so buckets have a single writer.
+     */
+    public void apply(List<AuditLog> batch) {
+        Map<BucketKey, AuditLogHourly> buckets = new LinkedHashMap<>();
+        for (AuditLog log : batch) {
+            BucketKey key = new BucketKey(log.getOccurredAt().truncatedTo(ChronoUnit.HOURS), log.getAction(),
+                    log.getEntityType() != null ? log.getEntityType() : "",
+                    log.getUserId() != null ? log.getUserId() : AuditLogHourly.ANONYMOUS_USER_ID);
+            AuditLogHourly bucket = buckets.computeIfAbsent(key, k -> new AuditLogHourly(
+                    k.hourStart(), k.action(), k.entityType(), k.userId(), null, 0));
+            bucket.setCount(bucket.getCount() + 1);
+            if (log.getUserEmail() != null) {
+                bucket.setUserEmail(log.getUserEmail());
+            }
+        }
+        for (AuditLogHourly bucket : buckets.values()) {
+            Timestamp hourStart = Timestamp.valueOf(bucket.getHourStart());
+            int updated = jdbcTemplate.update(UPDATE_SQL, bucket.getCount(), bucket.getUserEmail(), hourStart,
+                    bucket.getAction(), bucket.getEntityType(), bucket.getUserId());
+            if (updated == 0) {
+                jdbcTemplate.update(INSERT_SQL, hourStart, bucket.getAction(), bucket.getEntityType(),
+                        bucket.getUserId(), bucket.getUserEmail(), bucket.getCount());
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the whole rollup from the raw log with a single grouped scan.
+     * Returns the number of rollup rows written.
+     */
+    @Transactional
+    public int rebuild() {
+        rollupRepository.deleteAllInBatch();
+        List<Object[]> counts = auditLogRepository.countByHourAndKey();
+        rollupRepository.saveAll(counts.stream()
+                .map(row -> new AuditLogHourly(
+                        LocalDateTime.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(),
+                                ((Number) row[2]).intValue(), ((Number) row[3]).intValue(), 0),
+                        (String) row[4], (String) row[5], ((Number) row[6]).longValue(), (String) row[7],
+                        ((Number) row[8]).longValue()))
+                .toList());
+        System.out.println("Audit log rollup rebuilt: " + counts.size() + " rows");
+        return counts.size();
+    }
+
+    // Called by the writer thread before its first flush, so no batch races the rebuild
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0 && auditLogRepository.count() > 0) {
+            rebuild();
+        }
+    }
+}
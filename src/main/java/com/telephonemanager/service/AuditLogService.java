@@ -1,86 +1,170 @@
 package com.telephonemanager.service;
 
+import com.telephonemanager.entity.AuditLog;
+import com.telephonemanager.entity.AuditLogHourly;
+import com.telephonemanager.repository.AuditLogHourlyRepository;
+import com.telephonemanager.repository.AuditLogRepository;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
+/**
+ * Read side of the audit trail. Filters are added to the query only when given,
+ * so each search can use the matching audit_logs index.
+ */
 @Service
 public class AuditLogService {
-    
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("occurredAt"), Sort.Order.desc("id"));
+    private static final int TOP_USERS = 20;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    @Autowired
+    private AuditLogHourlyRepository auditLogHourlyRepository;
+
     public Map<String, Object> getAuditLogs(int page, int limit, String action, String entityType, Long userId, String startDate, String endDate) {
-        Map<String, Object> result = new HashMap<>();
-        
-        // For now, return mock data since we haven't implemented the AuditLog entity yet
-        // In a real implementation, you would query the audit log repository with filters
-        
-        result.put("auditLogs", new Object[0]); // Empty array for now
-        result.put("pagination", Map.of(
-            "page", page,
-            "limit", limit,
-            "total", 0,
-            "totalPages", 0
-        ));
-        
-        return result;
+        return toResult(search(filter(action, entityType, null, userId, startDate, endDate), page, limit));
     }
 
     public Map<String, Object> getUserAuditLogs(Long userId, int page, int limit) {
-        Map<String, Object> result = new HashMap<>();
-        
-        // For now, return mock data since we haven't implemented the AuditLog entity yet
-        // In a real implementation, you would query the audit log repository for the specific user
-        
-        result.put("auditLogs", new Object[0]); // Empty array for now
-        result.put("pagination", Map.of(
-            "page", page,
-            "limit", limit,
-            "total", 0,
-            "totalPages", 0
-        ));
-        
-        return result;
+        return toResult(search(filter(null, null, null, userId, null, null), page, limit));
     }
 
     public Map<String, Object> getEntityAuditLogs(String entityType, Long entityId, int page, int limit) {
-        Map<String, Object> result = new HashMap<>();
-        
-        // For now, return mock data since we haven't implemented the AuditLog entity yet
-        // In a real implementation, you would query the audit log repository for the specific entity
-        
-        result.put("auditLogs", new Object[0]); // Empty array for now
-        result.put("pagination", Map.of(
-            "page", page,
-            "limit", limit,
-            "total", 0,
-            "totalPages", 0
-        ));
-        
-        return result;
+        return toResult(search(filter(null, entityType, entityId, null, null, null), page, limit));
     }
 
+    /**
+     * Summary merged from the hourly rollup, so its cost depends on the length of the
+     * range rather than the size of the log. Bounds are hour-granular: a timestamp
+     * inside an hour includes that whole hour.
+     */
     public Map<String, Object> getAuditLogSummary(String startDate, String endDate) {
+        LocalDateTime start = startDate != null && !startDate.isBlank()
+                ? parseStart(startDate).truncatedTo(ChronoUnit.HOURS) : LocalDateTime.of(1900, 1, 1, 0, 0);
+        LocalDateTime end = endDate != null && !endDate.isBlank()
+                ? parseEnd(endDate) : LocalDateTime.of(9999, 1, 1, 0, 0);
+        LocalDate today = LocalDate.now();
+        LocalDateTime tomorrow = today.plusDays(1).atStartOfDay();
+
+        long total = 0;
+        Map<String, Long> actions = new HashMap<>();
+        Map<String, Long> entityTypes = new HashMap<>();
+        Map<String, Long> users = new HashMap<>();
+        for (Object[] row : auditLogHourlyRepository.sumByKey(start, end)) {
+            long count = ((Number) row[4]).longValue();
+            total += count;
+            actions.merge((String) row[0], count, Long::sum);
+            entityTypes.merge(((String) row[1]).isEmpty() ? "unknown" : (String) row[1], count, Long::sum);
+            long userId = ((Number) row[2]).longValue();
+            if (userId != AuditLogHourly.ANONYMOUS_USER_ID) {
+                users.merge(row[3] != null ? (String) row[3] : "user #" + userId, count, Long::sum);
+            }
+        }
+
         Map<String, Object> summary = new HashMap<>();
-        
-        // For now, return mock data since we haven't implemented the AuditLog entity yet
-        // In a real implementation, you would calculate statistics from the audit log repository
-        
-        summary.put("totalLogs", 0);
-        summary.put("logsToday", 0);
-        summary.put("logsThisWeek", 0);
-        summary.put("logsThisMonth", 0);
-        summary.put("actionDistribution", Map.of());
-        summary.put("entityTypeDistribution", Map.of());
-        summary.put("userActivityDistribution", Map.of());
-        
+        summary.put("totalLogs", total);
+        summary.put("logsToday", auditLogHourlyRepository.sumCount(today.atStartOfDay(), tomorrow));
+        summary.put("logsThisWeek", auditLogHourlyRepository.sumCount(
+                today.with(DayOfWeek.MONDAY).atStartOfDay(), tomorrow));
+        summary.put("logsThisMonth", auditLogHourlyRepository.sumCount(today.withDayOfMonth(1).atStartOfDay(), tomorrow));
+        summary.put("actionDistribution", topEntries(actions, Integer.MAX_VALUE));
+        summary.put("entityTypeDistribution", topEntries(entityTypes, Integer.MAX_VALUE));
+        summary.put("userActivityDistribution", topEntries(users, TOP_USERS));
         return summary;
     }
 
-    public String exportAuditLogs(String startDate, String endDate, String action, String entityType) {
-        // For now, return empty CSV since we haven't implemented the AuditLog entity yet
-        // In a real implementation, you would generate CSV data from the audit log repository
-        
-        return "Timestamp,Action,EntityType,EntityId,UserId,Details\n";
+    /**
+     * Filter for a streamed export; dates are parsed here so an invalid one is rejected
+     * before the response starts.
+     */
+    public Specification<AuditLog> exportFilter(String startDate, String endDate, String action, String entityType) {
+        return filter(action, entityType, null, null, startDate, endDate);
+    }
+
+    private Page<AuditLog> search(Specification<AuditLog> spec, int page, int limit) {
+        return auditLogRepository.findAll(spec, PageRequest.of(Math.max(page, 1) - 1, limit, NEWEST_FIRST));
+    }
+
+    private static Specification<AuditLog> filter(String action, String entityType, Long entityId, Long userId,
+            String startDate, String endDate) {
+        LocalDateTime start = startDate != null && !startDate.isBlank() ? parseStart(startDate) : null;
+        LocalDateTime end = endDate != null && !endDate.isBlank() ? parseEnd(endDate) : null;
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (action != null && !action.isBlank()) {
+                predicates.add(cb.equal(root.get("action"), action.toUpperCase(Locale.ROOT)));
+            }
+            if (entityType != null && !entityType.isBlank()) {
+                predicates.add(cb.equal(root.get("entityType"), entityType));
+            }
+            if (entityId != null) {
+                predicates.add(cb.equal(root.get("entityId"), entityId));
+            }
+            if (userId != null) {
+                predicates.add(cb.equal(root.get("userId"), userId));
+            }
+            if (start != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("occurredAt"), start));
+            }
+            if (end != null) {
+                predicates.add(cb.lessThan(root.get("occurredAt"), end));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Dates are inclusive days (yyyy-MM-dd) or exact ISO timestamps
+    private static LocalDateTime parseStart(String value) {
+        try {
+            return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid start date: " + value);
+        }
+    }
+
+    private static LocalDateTime parseEnd(String value) {
+        try {
+            return value.length() == 10 ? LocalDate.parse(value).plusDays(1).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid end date: " + value);
+        }
+    }
+
+    private static Map<String, Object> toResult(Page<AuditLog> logs) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("auditLogs", logs.getContent());
+        result.put("pagination", Map.of(
+            "page", logs.getNumber() + 1,
+            "limit", logs.getSize(),
+            "total", logs.getTotalElements(),
+            "totalPages", logs.getTotalPages()
+        ));
+        return result;
+    }
+
+    private static Map<String, Long> topEntries(Map<String, Long> counts, int limit) {
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .forEach(entry -> distribution.put(entry.getKey(), entry.getValue()));
+        return distribution;
     }
-} 
\ No newline at end of file
+}
@@ -6,7 +6,6 @@ import com.telephonemanager.entity.User;
 import com.telephonemanager.repository.UserRepository;
 import com.telephonemanager.security.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -19,10 +18,13 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private JwtUtil jwtUtil;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private LoginVerificationExecutor loginVerificationExecutor;
+
+    @Autowired
+    private LastLoginRecorder lastLoginRecorder;
 
     public LoginResponse login(LoginRequest loginRequest) {
         Optional<User> userOpt = userRepository.findByEmail(loginRequest.getEmail());
@@ -33,7 +35,7 @@ public class AuthService {
 
         User user = userOpt.get();
         
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+        if (!loginVerificationExecutor.matches(loginRequest.getPassword(), user.getPassword())) {
             throw new RuntimeException("Invalid email or password");
         }
 
@@ -41,9 +43,8 @@ public class AuthService {
             throw new RuntimeException("Votre compte a été désactivé. Veuillez contacter l'administrateur pour plus d'informations.");
         }
 
-        // Update last login
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
+        // Update last login; written in batches by LastLoginRecorder
+        lastLoginRecorder.record(user.getId(), LocalDateTime.now());
 
         // Generate JWT token
         String token = jwtUtil.generateToken(user);
@@ -61,9 +62,8 @@ public class AuthService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    public void logout(String email) {
-        // In a real application, you might want to blacklist the token
-        // For now, we'll just log the logout
+    public void logout(String email, String token) {
+        jwtUtil.revokeToken(token);
         System.out.println("User " + email + " logged out");
     }
 
@@ -0,0 +1,133 @@
+package com.telephonemanager.service;
+
+import com.telephonemanager.entity.User;
+import com.telephonemanager.event.AlertChangedEvent;
+import com.telephonemanager.event.AssignmentRecordedEvent;
+import com.telephonemanager.event.InventoryChangeEvent;
+import com.telephonemanager.event.InventoryChangeEvent.ItemState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pushes compact dashboard deltas to STOMP subscribers of /topic/dashboard once
+ * changes commit: counter deltas (e.g. "phones.assigned": 1), new activity rows and
+ * raised or cleared alerts. Clients apply them to the last snapshot they fetched.
+ */
+@Service
+public class DashboardPushService {
+    public static final String DASHBOARD_TOPIC = "/topic/dashboard";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+    @Autowired
+    private ActivityFeedService activityFeedService;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        switch (event.getItemType()) {
+            case PHONE:
+                inventoryDeltas("phones", event.getBefore(), event.getAfter(), deltas);
+                break;
+            case SIM:
+                inventoryDeltas("simCards", event.getBefore(), event.getAfter(), deltas);
+                break;
+            case USER:
+                userDeltas(event.getBefore(), event.getAfter(), deltas);
+                break;
+            default:
+                return;
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("itemType", event.getItemType());
+        payload.put("action", event.getAction());
+        payload.put("itemId", event.getItemId());
+        payload.put("deltas", deltas);
+        send("counters", payload);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssignmentRecorded(AssignmentRecordedEvent event) {
+        try {
+            send("activity", Map.of("activity",
+                    activityFeedService.enrich(Collections.singletonList(event.getHistory())).get(0)));
+        } catch (Exception e) {
+            System.err.println("Failed to push activity: " + e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onAlertChanged(AlertChangedEvent event) {
+        if (event.isStoreRebuilt()) {
+            pushResync("alerts");
+            return;
+        }
+        send(event.isActive() ? "alertRaised" : "alertCleared", Map.of("alert", event.getAlert()));
+    }
+
+    /** Tells clients to refetch their snapshots, e.g. after a bulk rebuild. */
+    public void pushResync(String reason) {
+        send("resync", Map.of("reason", reason));
+    }
+
+    private void send(String type, Map<String, Object> payload) {
+        Map<String, Object> message = new HashMap<>(payload);
+        message.put("type", type);
+        message.put("at", LocalDateTime.now());
+        try {
+            messagingTemplate.convertAndSend(DASHBOARD_TOPIC, message);
+        } catch (Exception e) {
+            System.err.println("Failed to push dashboard " + type + ": " + e.getMessage());
+        }
+    }
+
+    private static void inventoryDeltas(String prefix, ItemState before, ItemState after, Map<String, Long> deltas) {
+        if (before == null) {
+            deltas.merge(prefix + ".total", 1L, Long::sum);
+        }
+        if (after == null) {
+            deltas.merge(prefix + ".total", -1L, Long::sum);
+        }
+        boolean wasAssigned = before != null && before.isAssigned();
+        boolean isAssigned = after != null && after.isAssigned();
+        if (wasAssigned != isAssigned) {
+            deltas.merge(prefix + ".assigned", isAssigned ? 1L : -1L, Long::sum);
+        }
+        if (before != null) {
+            deltas.merge(prefix + ".status." + before.getStatus(), -1L, Long::sum);
+        }
+        if (after != null) {
+            deltas.merge(prefix + ".status." + after.getStatus(), 1L, Long::sum);
+        }
+    }
+
+    private static void userDeltas(ItemState before, ItemState after, Map<String, Long> deltas) {
+        if (before == null) {
+            deltas.merge("users.total", 1L, Long::sum);
+        }
+        if (after == null) {
+            deltas.merge("users.total", -1L, Long::sum);
+        }
+        User.UserRole oldRole = before != null ? before.getRole() : null;
+        User.UserRole newRole = after != null ? after.getRole() : null;
+        if (oldRole != null) {
+            deltas.merge("users.role." + oldRole, -1L, Long::sum);
+        }
+        if (newRole != null) {
+            deltas.merge("users.role." + newRole, 1L, Long::sum);
+        }
+    }
+}
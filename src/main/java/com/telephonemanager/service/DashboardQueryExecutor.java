@@ -0,0 +1,131 @@
+package com.telephonemanager.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent dashboard queries concurrently on a small dedicated pool.
+ * The pool is sized to a share of the Hikari connection pool so dashboard fan-out
+ * can never starve regular requests of connections. Each batch has a deadline;
+ * queries that miss it are cancelled and reported instead of failing the request.
+ */
+@Service
+public class DashboardQueryExecutor {
+    private final ThreadPoolExecutor executor;
+    private final long queryTimeoutMillis;
+
+    public DashboardQueryExecutor(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+            @Value("${dashboard.parallel.pool-share:0.3}") double poolShare,
+            @Value("${dashboard.parallel.query-timeout:2000}") long queryTimeoutMillis) {
+        int threads = Math.max(1, (int) (connectionPoolSize * poolShare));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-query-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Saturated: run on the caller rather than queue without bound
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.queryTimeoutMillis = queryTimeoutMillis;
+    }
+
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A set of named queries submitted together and awaited against one deadline.
+     */
+    public class Batch {
+        private final Map<String, Future<?>> futures = new LinkedHashMap<>();
+        private final Map<String, Object> results = new LinkedHashMap<>();
+        private final List<String> timedOut = new ArrayList<>();
+        private final List<String> failed = new ArrayList<>();
+
+        public Batch submit(String name, Supplier<?> query) {
+            futures.put(name, executor.submit(query::get));
+            return this;
+        }
+
+        public Batch await() {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queryTimeoutMillis);
+            futures.forEach((name, future) -> {
+                try {
+                    long remaining = Math.max(0, deadline - System.nanoTime());
+                    results.put(name, future.get(remaining, TimeUnit.NANOSECONDS));
+                } catch (TimeoutException e) {
+                    future.cancel(true);
+                    timedOut.add(name);
+                    System.err.println("Dashboard query timed out after " + queryTimeoutMillis + "ms: " + name);
+                } catch (ExecutionException e) {
+                    failed.add(name);
+                    System.err.println("Dashboard query failed: " + name + " - " + e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.cancel(true);
+                    failed.add(name);
+                }
+            });
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> T get(String name, T fallback) {
+            return results.containsKey(name) ? (T) results.get(name) : fallback;
+        }
+
+        /** Returns the result or throws if the query timed out or failed. */
+        @SuppressWarnings("unchecked")
+        public <T> T require(String name) {
+            if (!results.containsKey(name)) {
+                throw new RuntimeException("Dashboard query did not complete: " + name);
+            }
+            return (T) results.get(name);
+        }
+
+        public boolean isPartial() {
+            return !timedOut.isEmpty() || !failed.isEmpty();
+        }
+
+        public List<String> getTimedOut() {
+            return Collections.unmodifiableList(timedOut);
+        }
+
+        public List<String> getFailed() {
+            return Collections.unmodifiableList(failed);
+        }
+
+        /** Flags the response as partial and lists the missing queries, if any. */
+        public void reportTo(Map<String, Object> response) {
+            response.put("partial", isPartial());
+            if (isPartial()) {
+                response.put("timedOut", getTimedOut());
+                response.put("failed", getFailed());
+            }
+        }
+    }
+}
@@ -1,23 +1,29 @@
 package com.telephonemanager.service;
 
+import com.telephonemanager.alert.AlertEngine;
+import com.telephonemanager.dto.Alert;
+import com.telephonemanager.dto.DepartmentAggregate;
+import com.telephonemanager.dto.EntityStats;
 import com.telephonemanager.entity.Phone;
 import com.telephonemanager.entity.SimCard;
 import com.telephonemanager.entity.User;
 import com.telephonemanager.entity.AssignmentHistory;
+import com.telephonemanager.entity.AssignmentHistoryMonthly;
 import com.telephonemanager.repository.PhoneRepository;
 import com.telephonemanager.repository.SimCardRepository;
 import com.telephonemanager.repository.UserRepository;
-import com.telephonemanager.repository.AssignmentHistoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class DashboardService {
+    private static final String[] MONTH_NAMES = { "Jan", "Fév", "Mar", "Avr", "Mai", "Jun",
+            "Jul", "Aoû", "Sep", "Oct", "Nov", "Déc" };
+
     @Autowired
     private PhoneRepository phoneRepository;
     @Autowired
@@ -25,36 +31,44 @@ public class DashboardService {
     @Autowired
     private UserRepository userRepository;
     @Autowired
-    private AssignmentHistoryRepository assignmentHistoryRepository;
+    private InventoryCounterService inventoryCounterService;
+    @Autowired
+    private InventoryAggregationService inventoryAggregationService;
+    @Autowired
+    private AssignmentHistoryRollupService rollupService;
+    @Autowired
+    private DashboardQueryExecutor dashboardQueryExecutor;
+    @Autowired
+    private AlertEngine alertEngine;
+    @Autowired
+    private ActivityFeedService activityFeedService;
 
     public Map<String, Object> getDashboardOverview() {
         Map<String, Object> overview = new HashMap<>();
 
-        // Total counts
-        long totalPhones = phoneRepository.count();
-        long totalSimCards = simCardRepository.count();
-        long totalUsers = userRepository.count();
+        // Inventory counts are served from the in-memory counters
+        long totalPhones = inventoryCounterService.getTotalPhones();
+        long totalSimCards = inventoryCounterService.getTotalSimCards();
+        long totalUsers = inventoryCounterService.getTotalUsers();
 
         // Assigned counts
-        long assignedPhones = phoneRepository.countByAssignedToIsNotNull();
-        long assignedSimCards = simCardRepository.countByAssignedToIsNotNull();
+        long assignedPhones = inventoryCounterService.getAssignedPhones();
+        long assignedSimCards = inventoryCounterService.getAssignedSimCards();
 
         // Available counts
-        long availablePhones = phoneRepository.countByStatus(Phone.Status.AVAILABLE);
-        long availableSimCards = simCardRepository.countByStatus(SimCard.Status.AVAILABLE);
+        long availablePhones = inventoryCounterService.getPhoneCount(Phone.Status.AVAILABLE);
+        long availableSimCards = inventoryCounterService.getSimCardCount(SimCard.Status.AVAILABLE);
 
         // Recent activity (last 7 days)
-        LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
-        long recentAssignments = assignmentHistoryRepository.countByDateAfter(weekAgo);
+        long recentAssignments = inventoryCounterService.getRecentHistoryCount();
 
         // Monthly statistics for the last 6 months
-        List<Map<String, Object>> monthlyStats = generateMonthlyStats();
+        List<Map<String, Object>> monthlyStats = getMonthlyStats(6);
 
         // Pending requests and maintenance data
-        long pendingRequests = assignmentHistoryRepository.countByDateAfter(weekAgo);
-        long pendingReturns = assignmentHistoryRepository.countByDateBetweenAndAction(
-                weekAgo, LocalDateTime.now(), AssignmentHistory.Action.UNASSIGN);
-        long scheduledMaintenance = phoneRepository.countByStatus(Phone.Status.DAMAGED);
+        long pendingRequests = recentAssignments;
+        long pendingReturns = inventoryCounterService.getRecentUnassignmentCount();
+        long scheduledMaintenance = inventoryCounterService.getPhoneCount(Phone.Status.DAMAGED);
 
         overview.put("totals", Map.of(
                 "phones", totalPhones,
@@ -83,31 +97,26 @@ public class DashboardService {
     public Map<String, Object> getPhoneStats() {
         Map<String, Object> stats = new HashMap<>();
 
-        // Status distribution
-        Map<String, Long> statusCounts = new HashMap<>();
-        for (Phone.Status status : Phone.Status.values()) {
-            long count = phoneRepository.countByStatus(status);
-            statusCounts.put(status.name(), count);
-        }
-
-        // Brand distribution
-        List<Object[]> brandStats = phoneRepository.findBrandDistribution();
+        // Status distribution and brand distribution are independent, so run them concurrently
+        DashboardQueryExecutor.Batch batch = dashboardQueryExecutor.newBatch()
+                .submit("statusDistribution", inventoryAggregationService::aggregatePhones)
+                .submit("brandDistribution", phoneRepository::findBrandDistribution)
+                .await();
+        EntityStats<Phone.Status> phones = batch.get("statusDistribution",
+                EntityStats.from(Phone.Status.class, Collections.emptyList()));
+        List<Object[]> brandStats = batch.get("brandDistribution", Collections.emptyList());
         Map<String, Long> brandCounts = brandStats.stream()
                 .collect(Collectors.toMap(
                         row -> (String) row[0],
                         row -> (Long) row[1]));
 
-        // Assignment rate
-        long totalPhones = phoneRepository.count();
-        long assignedPhones = phoneRepository.countByAssignedToIsNotNull();
-        double assignmentRate = totalPhones > 0 ? (double) assignedPhones / totalPhones * 100 : 0;
-
-        stats.put("statusDistribution", statusCounts);
+        stats.put("statusDistribution", phones.getDistributionByName());
         stats.put("brandDistribution", brandCounts);
-        stats.put("assignmentRate", Math.round(assignmentRate * 100.0) / 100.0);
-        stats.put("totalPhones", totalPhones);
-        stats.put("assignedPhones", assignedPhones);
-        stats.put("availablePhones", totalPhones - assignedPhones);
+        stats.put("assignmentRate", phones.getAssignmentRate());
+        stats.put("totalPhones", phones.getTotal());
+        stats.put("assignedPhones", phones.getAssigned());
+        stats.put("availablePhones", phones.getUnassigned());
+        batch.reportTo(stats);
 
         return stats;
     }
@@ -115,20 +124,14 @@ public class DashboardService {
     public Map<String, Object> getSimCardStats() {
         Map<String, Object> stats = new HashMap<>();
 
-        // Status distribution
-        Map<String, Long> statusCounts = new HashMap<>();
-        for (SimCard.Status status : SimCard.Status.values()) {
-            long count = simCardRepository.countByStatus(status);
-            statusCounts.put(status.name(), count);
-        }
-
-        // Assignment rate
-        long totalSimCards = simCardRepository.count();
-        long assignedSimCards = simCardRepository.countByAssignedToIsNotNull();
-        double assignmentRate = totalSimCards > 0 ? (double) assignedSimCards / totalSimCards * 100 : 0;
-
-        // Carrier distribution
-        List<Object[]> carrierStats = simCardRepository.findCarrierDistribution();
+        // Status distribution and carrier distribution are independent, so run them concurrently
+        DashboardQueryExecutor.Batch batch = dashboardQueryExecutor.newBatch()
+                .submit("statusDistribution", inventoryAggregationService::aggregateSimCards)
+                .submit("carrierDistribution", simCardRepository::findCarrierDistribution)
+                .await();
+        EntityStats<SimCard.Status> simCards = batch.get("statusDistribution",
+                EntityStats.from(SimCard.Status.class, Collections.emptyList()));
+        List<Object[]> carrierStats = batch.get("carrierDistribution", Collections.emptyList());
         System.out.println("DEBUG: Carrier stats found: " + carrierStats.size());
 
         Map<String, Long> carrierCounts = carrierStats.stream()
@@ -140,12 +143,13 @@ public class DashboardService {
                         },
                         row -> (Long) row[1]));
 
-        stats.put("statusDistribution", statusCounts);
+        stats.put("statusDistribution", simCards.getDistributionByName());
         stats.put("carrierDistribution", carrierCounts);
-        stats.put("assignmentRate", Math.round(assignmentRate * 100.0) / 100.0);
-        stats.put("totalSimCards", totalSimCards);
-        stats.put("assignedSimCards", assignedSimCards);
-        stats.put("availableSimCards", totalSimCards - assignedSimCards);
+        stats.put("assignmentRate", simCards.getAssignmentRate());
+        stats.put("totalSimCards", simCards.getTotal());
+        stats.put("assignedSimCards", simCards.getAssigned());
+        stats.put("availableSimCards", simCards.getUnassigned());
+        batch.reportTo(stats);
 
         System.out.println("DEBUG: Final SIM stats map: " + stats);
 
@@ -155,26 +159,30 @@ public class DashboardService {
     public Map<String, Object> getUserStats() {
         Map<String, Object> stats = new HashMap<>();
 
-        // Role distribution
-        Map<String, Long> roleCounts = new HashMap<>();
-        for (User.UserRole role : User.UserRole.values()) {
-            long count = userRepository.countByRole(role);
-            roleCounts.put(role.name(), count);
-        }
-
-        // Department distribution with enhanced data
-        List<Map<String, Object>> departmentStats = generateDepartmentStats();
+        // Role distribution and the three department aggregates are independent, so run them concurrently
+        DashboardQueryExecutor.Batch batch = dashboardQueryExecutor.newBatch()
+                .submit("roleDistribution", inventoryAggregationService::aggregateUsers)
+                .submit("departmentUsers", userRepository::aggregateByDepartment)
+                .submit("departmentPhones", phoneRepository::aggregateAssignedByDepartment)
+                .submit("departmentSimCards", simCardRepository::aggregateAssignedByDepartment)
+                .await();
+        EntityStats<User.UserRole> users = batch.get("roleDistribution",
+                EntityStats.from(User.UserRole.class, Collections.emptyList()));
+        List<Map<String, Object>> departmentStats = generateDepartmentStats(
+                batch.get("departmentUsers", Collections.emptyList()),
+                batch.get("departmentPhones", Collections.emptyList()),
+                batch.get("departmentSimCards", Collections.emptyList()));
 
         // Users with assignments
-        long totalUsers = userRepository.count();
-        long usersWithPhones = phoneRepository.countByAssignedToIsNotNull();
-        long usersWithSimCards = simCardRepository.countByAssignedToIsNotNull();
+        long usersWithPhones = inventoryCounterService.getAssignedPhones();
+        long usersWithSimCards = inventoryCounterService.getAssignedSimCards();
 
-        stats.put("roleDistribution", roleCounts);
+        stats.put("roleDistribution", users.getDistributionByName());
         stats.put("departmentStats", departmentStats);
-        stats.put("totalUsers", totalUsers);
+        stats.put("totalUsers", users.getTotal());
         stats.put("usersWithPhones", usersWithPhones);
         stats.put("usersWithSimCards", usersWithSimCards);
+        batch.reportTo(stats);
 
         return stats;
     }
@@ -182,137 +190,101 @@ public class DashboardService {
     public Map<String, Object> getRecentActivity(int limit) {
         Map<String, Object> activity = new HashMap<>();
 
-        // Recent assignments
-        List<AssignmentHistory> recentHistory = assignmentHistoryRepository
-                .findTop10ByOrderByDateDesc();
-
-        List<Map<String, Object>> activities = recentHistory.stream()
-                .map(this::convertToActivityMap)
-                .collect(Collectors.toList());
+        // First page of the activity feed, already enriched with user and item names
+        Map<String, Object> feed = activityFeedService.getFeed(null, limit, null, null, null);
 
-        activity.put("recentActivities", activities);
-        activity.put("totalActivities", activities.size());
+        activity.put("recentActivities", feed.get("activities"));
+        activity.put("totalActivities", feed.get("count"));
+        activity.put("nextCursor", feed.get("nextCursor"));
 
         return activity;
     }
 
     public Map<String, Object> getAlerts() {
         Map<String, Object> alerts = new HashMap<>();
-        List<Map<String, Object>> alertList = new ArrayList<>();
-
-        // Phones in damaged status for more than 30 days
-        LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
-        List<Phone> longDamagedPhones = phoneRepository
-                .findByStatusAndAssignedDateBefore(Phone.Status.DAMAGED, thirtyDaysAgo);
-
-        for (Phone phone : longDamagedPhones) {
-            Map<String, Object> alert = new HashMap<>();
-            alert.put("type", "LONG_DAMAGED_PHONE");
-            alert.put("itemId", phone.getId());
-            alert.put("itemName", phone.getBrand() + " " + phone.getModel());
-            alert.put("message", "Phone in damaged status for more than 30 days");
-            alert.put("severity", "MEDIUM");
-            alertList.add(alert);
-        }
-
-        // SIM cards in blocked status for more than 30 days
-        List<SimCard> longBlockedSims = simCardRepository
-                .findByStatusAndAssignedDateBefore(SimCard.Status.BLOCKED, thirtyDaysAgo);
-
-        for (SimCard sim : longBlockedSims) {
-            Map<String, Object> alert = new HashMap<>();
-            alert.put("type", "LONG_BLOCKED_SIM");
-            alert.put("itemId", sim.getId());
-            alert.put("itemName", sim.getNumber());
-            alert.put("message", "SIM card in blocked status for more than 30 days");
-            alert.put("severity", "MEDIUM");
-            alertList.add(alert);
-        }
 
-        // Users with multiple assignments (simplified for now)
-        // Will be implemented when we add proper relationships
-        // For now, we'll skip this alert type
-
-        alerts.put("alerts", alertList);
-        alerts.put("totalAlerts", alertList.size());
-        alerts.put("highPriorityAlerts", alertList.stream()
-                .filter(a -> "HIGH".equals(a.get("severity"))).count());
-        alerts.put("mediumPriorityAlerts", alertList.stream()
-                .filter(a -> "MEDIUM".equals(a.get("severity"))).count());
-        alerts.put("lowPriorityAlerts", alertList.stream()
-                .filter(a -> "LOW".equals(a.get("severity"))).count());
+        // Active alerts and severity counts are maintained incrementally by the alert engine
+        alerts.put("alerts", alertEngine.getActiveAlerts());
+        alerts.put("totalAlerts", alertEngine.getTotalCount());
+        alerts.put("highPriorityAlerts", alertEngine.getCount(Alert.Severity.HIGH));
+        alerts.put("mediumPriorityAlerts", alertEngine.getCount(Alert.Severity.MEDIUM));
+        alerts.put("lowPriorityAlerts", alertEngine.getCount(Alert.Severity.LOW));
 
         return alerts;
     }
 
-    private Map<String, Object> convertToActivityMap(AssignmentHistory history) {
-        Map<String, Object> activity = new HashMap<>();
-        activity.put("id", history.getId());
-        activity.put("type", history.getType().name());
-        activity.put("action", history.getAction().name());
-        activity.put("itemId", history.getItemId());
-        activity.put("fromUserId", history.getFromUserId());
-        activity.put("toUserId", history.getToUserId());
-        activity.put("date", history.getDate());
-        activity.put("notes", history.getNotes());
-        return activity;
-    }
-
-    private List<Map<String, Object>> generateMonthlyStats() {
-        List<Map<String, Object>> monthlyStats = new ArrayList<>();
-        String[] monthNames = { "Jan", "Fév", "Mar", "Avr", "Mai", "Jun" };
-
-        // Generate data for the last 6 months
-        for (int i = 5; i >= 0; i--) {
-            LocalDateTime monthStart = LocalDateTime.now().minusMonths(i).withDayOfMonth(1).withHour(0).withMinute(0)
-                    .withSecond(0);
-            LocalDateTime monthEnd = monthStart.plusMonths(1).minusSeconds(1);
+    public List<Map<String, Object>> getMonthlyStats(int months) {
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate firstMonth = currentMonth.minusMonths(months - 1);
 
-            // Count phone attributions (ASSIGN or TRANSFER)
-            long attributions = assignmentHistoryRepository.countByDateBetweenAndTypeAndActionIn(
-                    monthStart, monthEnd, AssignmentHistory.Type.PHONE,
-                    Arrays.asList(AssignmentHistory.Action.ASSIGN, AssignmentHistory.Action.TRANSFER));
+        // [attributions, returns] per month, in chronological order
+        Map<LocalDate, long[]> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < months; i++) {
+            buckets.put(firstMonth.plusMonths(i), new long[2]);
+        }
 
-            // Count phone returns (RETURN or UNASSIGN)
-            long returns = assignmentHistoryRepository.countByDateBetweenAndTypeAndActionIn(
-                    monthStart, monthEnd, AssignmentHistory.Type.PHONE,
-                    Arrays.asList(AssignmentHistory.Action.RETURN, AssignmentHistory.Action.UNASSIGN));
+        // Phone attributions (ASSIGN or TRANSFER) and returns (RETURN or UNASSIGN) from the rollup
+        for (AssignmentHistoryMonthly row : rollupService.getRollup(AssignmentHistory.Type.PHONE, firstMonth, currentMonth)) {
+            long[] bucket = buckets.get(row.getMonthStart());
+            if (bucket == null) {
+                continue;
+            }
+            AssignmentHistory.Action action = row.getAction();
+            if (action == AssignmentHistory.Action.ASSIGN || action == AssignmentHistory.Action.TRANSFER) {
+                bucket[0] += row.getCount();
+            } else if (action == AssignmentHistory.Action.RETURN || action == AssignmentHistory.Action.UNASSIGN) {
+                bucket[1] += row.getCount();
+            }
+        }
 
+        List<Map<String, Object>> monthlyStats = new ArrayList<>();
+        buckets.forEach((monthStart, counts) -> {
             Map<String, Object> monthData = new HashMap<>();
-            monthData.put("month", monthNames[5 - i]);
-            monthData.put("attributions", attributions);
-            monthData.put("returns", returns);
-
+            monthData.put("month", MONTH_NAMES[monthStart.getMonthValue() - 1]);
+            monthData.put("year", monthStart.getYear());
+            monthData.put("attributions", counts[0]);
+            monthData.put("returns", counts[1]);
             monthlyStats.add(monthData);
-        }
+        });
 
         return monthlyStats;
     }
 
-    private List<Map<String, Object>> generateDepartmentStats() {
-        List<Map<String, Object>> departmentStats = new ArrayList<>();
-
-        // Get department distribution from repository
-        List<Object[]> deptData = userRepository.findDepartmentDistribution();
-
-        for (Object[] row : deptData) {
-            String department = (String) row[0];
-            Long userCount = (Long) row[1];
-
-            // For now, estimate assigned phones and SIMs based on user count
-            // This can be enhanced when proper relationships are established
-            long estimatedPhones = Math.round(userCount * 0.8); // 80% of users have phones
-            long estimatedSims = Math.round(userCount * 0.9); // 90% of users have SIMs
-
-            Map<String, Object> deptStat = new HashMap<>();
-            deptStat.put("department", department);
-            deptStat.put("totalUsers", userCount);
-            deptStat.put("assignedPhones", estimatedPhones);
-            deptStat.put("assignedSimCards", estimatedSims);
-
-            departmentStats.add(deptStat);
+    /**
+     * Merges the per-department user, phone and SIM aggregates. They are grouped
+     * separately because joining phones and SIM cards to users in one query would
+     * multiply rows per user and double-count the summed price and fees.
+     */
+    private List<Map<String, Object>> generateDepartmentStats(List<DepartmentAggregate> users,
+            List<DepartmentAggregate> phones, List<DepartmentAggregate> simCards) {
+        Map<String, Map<String, Object>> byDepartment = new LinkedHashMap<>();
+        for (DepartmentAggregate row : users) {
+            departmentEntry(byDepartment, row.getDepartment()).put("totalUsers", row.getCount());
+        }
+        for (DepartmentAggregate row : phones) {
+            Map<String, Object> deptStat = departmentEntry(byDepartment, row.getDepartment());
+            deptStat.put("assignedPhones", row.getCount());
+            deptStat.put("phoneBookValue", row.getAmount());
+        }
+        for (DepartmentAggregate row : simCards) {
+            Map<String, Object> deptStat = departmentEntry(byDepartment, row.getDepartment());
+            deptStat.put("assignedSimCards", row.getCount());
+            deptStat.put("monthlySimSpend", row.getAmount());
         }
+        return new ArrayList<>(byDepartment.values());
+    }
 
-        return departmentStats;
+    private static Map<String, Object> departmentEntry(Map<String, Map<String, Object>> byDepartment,
+            String department) {
+        return byDepartment.computeIfAbsent(department, d -> {
+            Map<String, Object> deptStat = new HashMap<>();
+            deptStat.put("department", d);
+            deptStat.put("totalUsers", 0L);
+            deptStat.put("assignedPhones", 0L);
+            deptStat.put("assignedSimCards", 0L);
+            deptStat.put("phoneBookValue", 0.0);
+            deptStat.put("monthlySimSpend", 0.0);
+            return deptStat;
+        });
     }
-}
\ No newline at end of file
+}
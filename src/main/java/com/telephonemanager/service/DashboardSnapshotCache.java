@@ -0,0 +1,88 @@
+package com.telephonemanager.service;
+
+import com.telephonemanager.dto.DashboardSnapshot;
+import com.telephonemanager.event.AlertChangedEvent;
+import com.telephonemanager.event.AssignmentRecordedEvent;
+import com.telephonemanager.event.InventoryChangeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches precomputed dashboard responses per key. Any committed inventory change or
+ * history record bumps the data generation, which invalidates every snapshot at once;
+ * snapshots older than the configured max staleness are rebuilt regardless.
+ * Invalidation runs after the listeners that maintain in-memory dashboard state,
+ * so a snapshot rebuilt right after the bump already sees the change. Alerts are
+ * evaluated off the committing thread, so their changes bump the generation again.
+ */
+@Service
+public class DashboardSnapshotCache {
+    @Value("${dashboard.snapshot.max-staleness:60000}")
+    private long maxStalenessMillis;
+
+    private final Map<String, DashboardSnapshot<?>> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public <T> DashboardSnapshot<T> get(String key, Supplier<T> loader) {
+        DashboardSnapshot<T> snapshot = (DashboardSnapshot<T>) snapshots.get(key);
+        if (isFresh(snapshot)) {
+            return snapshot;
+        }
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            snapshot = (DashboardSnapshot<T>) snapshots.get(key);
+            if (isFresh(snapshot)) {
+                return snapshot;
+            }
+            // Read the generation before loading so a change committed mid-load marks the result stale
+            long currentGeneration = generation.get();
+            snapshot = new DashboardSnapshot<>(loader.get(), currentGeneration);
+            if (!isPartial(snapshot.getData())) {
+                snapshots.put(key, snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        invalidateAll();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssignmentRecorded(AssignmentRecordedEvent event) {
+        invalidateAll();
+    }
+
+    @EventListener
+    public void onAlertChanged(AlertChangedEvent event) {
+        invalidateAll();
+    }
+
+    // Results with timed-out or failed queries are served once but never cached
+    private static boolean isPartial(Object data) {
+        return data instanceof Map && Boolean.TRUE.equals(((Map<?, ?>) data).get("partial"));
+    }
+
+    private boolean isFresh(DashboardSnapshot<?> snapshot) {
+        return snapshot != null
+                && snapshot.getGeneration() == generation.get()
+                && System.currentTimeMillis() - snapshot.getGeneratedAtMillis() < maxStalenessMillis;
+    }
+}
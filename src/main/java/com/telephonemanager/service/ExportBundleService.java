@@ -0,0 +1,367 @@
+package com.telephonemanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telephonemanager.utils.CsvExportUtil;
+import com.telephonemanager.utils.TabularWriter;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Builds the auditor bundle: one ZIP with a CSV per entity plus a manifest of row
+ * counts and SHA-256 checksums.
+ *
+ * All entities are read by one reader in a single read-only transaction. Only under SQL
+ * Server snapshot isolation do the files reflect one point-in-time state of the
+ * database; at the default READ COMMITTED level each entity is read as of its own query,
+ * so rows committed between two queries can leave the files mutually inconsistent. A
+ * bundle is therefore refused when snapshot isolation is configured but not enabled on
+ * the database; with {@code export.bundle.snapshot-isolation=false} it is produced
+ * without it and the manifest records the weaker consistency. Rows are handed in batches
+ * to one encoder per entity, which CSV-encodes and checksums them into a spool file
+ * concurrently with the reads, and each finished file is deflated into the response
+ * while later entities are still being read.
+ */
+@Service
+public class ExportBundleService {
+    // java.sql.Connection has no constant for it; SQLServerConnection.TRANSACTION_SNAPSHOT
+    private static final int TRANSACTION_SNAPSHOT = 0x1000;
+    private static final int BATCH_SIZE = 500;
+    private static final List<Object[]> END_OF_ROWS = Collections.emptyList();
+    // Compared by identity: the reader stopped before this entity's rows were complete
+    private static final List<Object[]> READ_FAILED = Collections.unmodifiableList(new ArrayList<>());
+
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+    private final Semaphore bundleSlots;
+    private final boolean snapshotIsolation;
+    private final int queueBatches;
+    private volatile Boolean snapshotIsolationAllowed;
+
+    public ExportBundleService(PlatformTransactionManager transactionManager,
+            @Value("${export.bundle.snapshot-isolation:true}") boolean snapshotIsolation,
+            @Value("${export.bundle.max-concurrent:1}") int maxConcurrent,
+            @Value("${export.bundle.queue-batches:16}") int queueBatches) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.snapshotIsolation = snapshotIsolation;
+        this.queueBatches = queueBatches;
+        this.bundleSlots = new Semaphore(Math.max(1, maxConcurrent));
+        AtomicInteger threadCount = new AtomicInteger();
+        // One reader plus one encoder per entity for each admitted bundle
+        this.executor = Executors.newFixedThreadPool(Math.max(1, maxConcurrent) * (ExportService.ENTITIES.size() + 1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-bundle-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Reserves a bundle slot; the caller must pass it to {@link #writeBundle} or release it.
+     */
+    public boolean tryAcquire() {
+        return bundleSlots.tryAcquire();
+    }
+
+    public void release() {
+        bundleSlots.release();
+    }
+
+    /**
+     * Fails before anything is streamed when the configured snapshot isolation cannot be
+     * used, so a caller never receives a bundle silently weaker than configured.
+     */
+    public void checkSnapshotIsolation() {
+        if (snapshotIsolation && !isSnapshotIsolationAllowed()) {
+            throw new IllegalStateException("Snapshot isolation is not enabled on the database (ALLOW_SNAPSHOT_ISOLATION ON); "
+                    + "set export.bundle.snapshot-isolation=false to accept files read at different moments");
+        }
+    }
+
+    /** Whether bundles are read as one point-in-time snapshot. */
+    public boolean isSnapshotIsolation() {
+        return snapshotIsolation;
+    }
+
+    /**
+     * Streams the bundle to {@code out} and releases the slot taken by {@link #tryAcquire}.
+     */
+    public void writeBundle(OutputStream out) throws IOException {
+        List<String> entities = ExportService.ENTITIES;
+        Map<String, BlockingQueue<List<Object[]>>> queues = new LinkedHashMap<>();
+        Map<String, Future<BundleFile>> encoders = new LinkedHashMap<>();
+        Future<Boolean> reader = null;
+        try {
+            for (String entity : entities) {
+                BlockingQueue<List<Object[]>> queue = new ArrayBlockingQueue<>(queueBatches);
+                queues.put(entity, queue);
+                encoders.put(entity, executor.submit(() -> encode(entity, queue)));
+            }
+            reader = executor.submit(() -> readAll(queues, encoders));
+
+            List<Map<String, Object>> manifestFiles = new ArrayList<>();
+            ZipOutputStream zip = new ZipOutputStream(out);
+            for (String entity : entities) {
+                BundleFile file = await(encoders.get(entity));
+                if (reader.isDone()) {
+                    // Surfaces a failed reader before another entry reaches the response
+                    await(reader);
+                }
+                try {
+                    zip.putNextEntry(new ZipEntry(file.name));
+                    Files.copy(file.path, zip);
+                    zip.closeEntry();
+                } finally {
+                    Files.deleteIfExists(file.path);
+                }
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("file", file.name);
+                entry.put("rows", file.rows);
+                entry.put("bytes", file.bytes);
+                entry.put("sha256", file.sha256);
+                manifestFiles.add(entry);
+            }
+            boolean snapshot = await(reader);
+
+            Map<String, Object> manifest = new LinkedHashMap<>();
+            manifest.put("generatedAt", LocalDateTime.now().toString());
+            manifest.put("snapshotIsolation", snapshot);
+            manifest.put("consistency", snapshot ? "point-in-time" : "per-entity");
+            manifest.put("files", manifestFiles);
+            zip.putNextEntry(new ZipEntry("manifest.json"));
+            zip.write(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(manifest));
+            zip.closeEntry();
+            zip.finish();
+        } finally {
+            encoders.values().forEach(future -> future.cancel(true));
+            if (reader != null) {
+                reader.cancel(true);
+            }
+            // Spool files of encoders that finished after a failure
+            for (Future<BundleFile> encoder : encoders.values()) {
+                if (encoder.isDone() && !encoder.isCancelled()) {
+                    try {
+                        Files.deleteIfExists(encoder.get().path);
+                    } catch (Exception ignored) {
+                        // failed encoders leave no file behind
+                    }
+                }
+            }
+            bundleSlots.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Reads every entity in one transaction and returns whether snapshot isolation was in effect;
+     * fails rather than falling back when it is configured but cannot be switched on.
+     * Every live encoder receives a marker, so none is left waiting: the end marker once
+     * its entity was read in full, the failure marker if the reader stopped before that.
+     */
+    private boolean readAll(Map<String, BlockingQueue<List<Object[]>>> queues,
+            Map<String, Future<BundleFile>> encoders) {
+        List<String> pending = new ArrayList<>(queues.keySet());
+        try {
+            return readOnlyTransaction.execute(status -> {
+                if (snapshotIsolation) {
+                    checkSnapshotIsolation();
+                    enableSnapshotIsolation();
+                }
+                for (String entity : queues.keySet()) {
+                    BlockingQueue<List<Object[]>> queue = queues.get(entity);
+                    Future<BundleFile> encoder = encoders.get(entity);
+                    try (Stream<Object[]> rows = exportService.streamRows(entity)) {
+                        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+                        for (Iterator<Object[]> it = rows.iterator(); it.hasNext();) {
+                            batch.add(it.next());
+                            if (batch.size() == BATCH_SIZE) {
+                                handOff(queue, batch, encoder);
+                                batch = new ArrayList<>(BATCH_SIZE);
+                            }
+                        }
+                        if (!batch.isEmpty()) {
+                            handOff(queue, batch, encoder);
+                        }
+                    }
+                    handOff(queue, END_OF_ROWS, encoder);
+                    pending.remove(entity);
+                }
+                return snapshotIsolation;
+            });
+        } finally {
+            for (String entity : pending) {
+                try {
+                    handOff(queues.get(entity), READ_FAILED, encoders.get(entity));
+                } catch (RuntimeException e) {
+                    // encoder already stopped or the bundle was cancelled
+                }
+            }
+        }
+    }
+
+    /**
+     * Checked outside the bundle transaction, whose first statement must already run
+     * under snapshot isolation. Any failure (e.g. a non-SQL Server database) means no.
+     */
+    private boolean isSnapshotIsolationAllowed() {
+        Boolean allowed = snapshotIsolationAllowed;
+        if (allowed == null) {
+            try {
+                Integer state = jdbcTemplate.queryForObject(
+                        "SELECT snapshot_isolation_state FROM sys.databases WHERE name = DB_NAME()", Integer.class);
+                allowed = state != null && state == 1;
+            } catch (Exception e) {
+                allowed = false;
+            }
+            if (!allowed) {
+                System.err.println("Snapshot isolation is not enabled on the database; export bundles "
+                        + "are refused until it is enabled or export.bundle.snapshot-isolation is false");
+            }
+            snapshotIsolationAllowed = allowed;
+        }
+        return allowed;
+    }
+
+    /**
+     * Must run before the transaction's first statement: SQL Server only lets a
+     * transaction use snapshot isolation if it started under it. Hikari restores the
+     * pool's default level when the connection is returned.
+     */
+    private void enableSnapshotIsolation() {
+        try {
+            entityManager.unwrap(Session.class).doWork(connection -> connection.setTransactionIsolation(TRANSACTION_SNAPSHOT));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not switch export bundle to snapshot isolation: " + e.getMessage(), e);
+        }
+    }
+
+    private BundleFile encode(String entity, BlockingQueue<List<Object[]>> queue) throws Exception {
+        Path path = Files.createTempFile("export-bundle-" + entity + "-", ".csv");
+        MessageDigest digest = sha256();
+        long rows = 0;
+        try {
+            try (OutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(path)), digest);
+                 TabularWriter writer = CsvExportUtil.openWriter(out)) {
+                writer.writeRow(ExportService.headerOf(entity));
+                List<Object[]> batch;
+                while ((batch = queue.take()) != END_OF_ROWS) {
+                    if (batch == READ_FAILED) {
+                        throw new IllegalStateException("Export bundle reader failed before " + entity + " was complete");
+                    }
+                    for (Object[] row : batch) {
+                        writer.writeRow(ExportService.toCells(row));
+                    }
+                    rows += batch.size();
+                }
+            }
+            return new BundleFile(entity + ".csv", path, rows, Files.size(path),
+                    HexFormat.of().formatHex(digest.digest()));
+        } catch (Exception e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    /**
+     * Blocks while the encoder catches up, but gives up once it has stopped so a failed
+     * encoder can never stall the reader.
+     */
+    private static void handOff(BlockingQueue<List<Object[]>> queue, List<Object[]> batch, Future<?> encoder) {
+        try {
+            while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+                if (encoder.isDone()) {
+                    throw new IllegalStateException("Export bundle encoder stopped");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Export bundle interrupted", e);
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Export bundle failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export bundle interrupted", e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class BundleFile {
+        private final String name;
+        private final Path path;
+        private final long rows;
+        private final long bytes;
+        private final String sha256;
+
+        private BundleFile(String name, Path path, long rows, long bytes, String sha256) {
+            this.name = name;
+            this.path = path;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.sha256 = sha256;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.telephonemanager.service;
+
+import com.telephonemanager.dto.DataWatermark;
+import com.telephonemanager.dto.ExportJob;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Runs exports in the background on a small bounded pool so no request thread is held
+ * for the duration of a large export. Finished files are kept in an on-disk result store
+ * for a fixed TTL; an identical request (same entity and format) made while a job is
+ * running, or while its result is still fresh, is answered with that job instead of
+ * starting another export. A job is only reused while the entity's watermark (row count
+ * and latest modification time) is the one it was started at, so a write through any
+ * path retires the cached result.
+ */
+@Service
+public class ExportJobService {
+    // <job uuid>.part while writing, <job uuid>-<entity>.<ext> once complete
+    private static final Pattern JOB_FILE = Pattern.compile("[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}[-.].+");
+
+    @Autowired
+    private ExportService exportService;
+
+    private final ThreadPoolExecutor executor;
+    private final Path directory;
+    private final long resultTtlMillis;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    // Latest job per entity:format, reused while running or within the TTL
+    private final Map<String, ExportJob> latestByRequest = new ConcurrentHashMap<>();
+
+    public ExportJobService(
+            @Value("${export.jobs.directory:${java.io.tmpdir}/telephone-manager-exports}") String directory,
+            @Value("${export.jobs.threads:2}") int threads,
+            @Value("${export.jobs.queue-capacity:20}") int queueCapacity,
+            @Value("${export.jobs.result-ttl:3600000}") long resultTtlMillis) throws IOException {
+        this.directory = Files.createDirectories(Paths.get(directory));
+        this.resultTtlMillis = resultTtlMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        // Jobs live in memory, so artifacts left by a previous run can never be downloaded
+        purgeDirectory();
+    }
+
+    public ExportJob submit(String entity, String format, String requestedBy) {
+        if (!ExportService.ENTITIES.contains(entity)) {
+            throw new RuntimeException("Unknown export entity: " + entity);
+        }
+        String normalizedFormat = "excel".equalsIgnoreCase(format) ? "excel" : "csv";
+        // Read before the export starts, so a write racing the export retires its result
+        DataWatermark watermark = exportService.dataWatermark(entity);
+        return latestByRequest.compute(entity + ":" + normalizedFormat, (key, existing) -> {
+            if (existing != null && isReusable(existing, watermark)) {
+                return existing;
+            }
+            ExportJob job = new ExportJob(UUID.randomUUID().toString(), entity, normalizedFormat, requestedBy,
+                    watermark);
+            jobs.put(job.getId(), job);
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.getId());
+                throw new RuntimeException("Too many exports in progress, please retry later");
+            }
+            return job;
+        });
+    }
+
+    public Optional<ExportJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    @Scheduled(fixedDelayString = "${export.jobs.cleanup-interval:300000}",
+            initialDelayString = "${export.jobs.cleanup-interval:300000}")
+    public void evictExpired() {
+        jobs.values().removeIf(job -> {
+            if (!isExpired(job)) {
+                return false;
+            }
+            latestByRequest.remove(job.getEntity() + ":" + job.getFormat(), job);
+            if (job.getFile() != null) {
+                deleteQuietly(job.getFile());
+            }
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ExportJob job) {
+        job.setStatus(ExportJob.Status.RUNNING);
+        Path partial = directory.resolve(job.getId() + ".part");
+        Path target = directory.resolve(job.getId() + "-" + job.getFilename());
+        try {
+            job.setEstimatedTotal(exportService.countRows(job.getEntity()));
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                exportService.export(job.getEntity(), job.getFormat(), out, job.getRowCounter());
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            job.complete(target, Files.size(target));
+        } catch (Exception e) {
+            System.err.println("Export job " + job.getId() + " failed: " + e.getMessage());
+            deleteQuietly(partial);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private boolean isReusable(ExportJob job, DataWatermark watermark) {
+        if (job.getStatus() == ExportJob.Status.FAILED || !watermark.equals(job.getWatermark())) {
+            return false;
+        }
+        if (job.getStatus() == ExportJob.Status.COMPLETED) {
+            return !isExpired(job) && Files.exists(job.getFile());
+        }
+        return true;
+    }
+
+    private boolean isExpired(ExportJob job) {
+        return job.getCompletedAtMillis() > 0
+                && System.currentTimeMillis() - job.getCompletedAtMillis() > resultTtlMillis;
+    }
+
+    private void purgeDirectory() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (JOB_FILE.matcher(file.getFileName().toString()).matches()) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not clean export directory " + directory + ": " + e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Could not delete export file " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -1,26 +1,76 @@
 package com.telephonemanager.service;
 
-import com.telephonemanager.dto.UserDto;
-import com.telephonemanager.repository.UserRepository;
-import com.telephonemanager.utils.CsvExportUtil;
-import com.telephonemanager.utils.ExcelExportUtil;
-import com.telephonemanager.dto.PhoneDto;
-import com.telephonemanager.repository.PhoneRepository;
-import com.telephonemanager.dto.SimCardDto;
-import com.telephonemanager.repository.SimCardRepository;
-import com.telephonemanager.dto.AttributionDto;
+import com.telephonemanager.dto.DataWatermark;
+import com.telephonemanager.dto.IdRange;
+import com.telephonemanager.entity.AuditLog;
+import com.telephonemanager.repository.AssignmentHistoryRepository;
 import com.telephonemanager.repository.AttributionRepository;
-import com.telephonemanager.dto.RequestDto;
+import com.telephonemanager.repository.AuditLogRepository;
+import com.telephonemanager.repository.ExportTombstoneRepository;
+import com.telephonemanager.repository.PhoneRepository;
 import com.telephonemanager.repository.RequestRepository;
+import com.telephonemanager.repository.SimCardRepository;
+import com.telephonemanager.repository.UserRepository;
+import com.telephonemanager.utils.TabularWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+/**
+ * Streams exports from flat projection queries: every export is one joined SELECT of
+ * exactly the exported columns, returned as scalar tuples that Hibernate neither
+ * hydrates into entities nor tracks in the persistence context.
+ */
 @Service
 public class ExportService {
+    // Matches the fetch size of the export cursors
+    private static final int FLUSH_INTERVAL = 500;
+
+    public static final String USERS = "users";
+    public static final String PHONES = "phones";
+    public static final String SIM_CARDS = "simcards";
+    public static final String ATTRIBUTIONS = "attributions";
+    public static final String REQUESTS = "requests";
+    public static final String ASSIGNMENT_HISTORY = "assignment-history";
+    public static final List<String> ENTITIES = List.of(USERS, PHONES, SIM_CARDS, ATTRIBUTIONS, REQUESTS,
+            ASSIGNMENT_HISTORY);
+
+    // Column order must match the select list of the matching streamExportRows query
+    private static final String[] USER_HEADER = { "ID", "Name", "Email", "Role", "Department", "Position",
+            "Status", "Join Date", "Phone", "Address", "Manager" };
+    private static final String[] PHONE_HEADER = { "ID", "Brand", "Model", "IMEI 1", "IMEI 2", "Status",
+            "Assigned To ID", "Assigned To Name", "Assigned Date", "Notes" };
+    private static final String[] SIM_CARD_HEADER = { "ID", "Number", "ICCID", "Status", "Assigned To ID",
+            "Assigned To Name", "Assigned Date", "Notes", "PIN", "PUK", "POKE" };
+    private static final String[] ATTRIBUTION_HEADER = { "ID", "User ID", "User Name", "User Email", "Phone ID",
+            "Phone Model", "Phone Brand", "SIM Card ID", "SIM Card Number", "Assigned By ID", "Assigned By Name",
+            "Assignment Date", "Return Date", "Status", "Notes", "Created At", "Updated At" };
+    private static final String[] REQUEST_HEADER = { "ID", "User ID", "User Name", "User Email", "Type", "Title",
+            "Description", "Status", "Priority", "Assigned To ID", "Assigned To Name", "Created At", "Updated At",
+            "Resolved At", "Resolution" };
+    private static final String[] ASSIGNMENT_HISTORY_HEADER = { "ID", "Type", "Item ID", "From User ID",
+            "To User ID", "Action", "Date", "Notes", "Remaining Value" };
+    private static final String[] AUDIT_LOG_HEADER = { "ID", "Timestamp", "User ID", "User Email", "Action",
+            "Entity Type", "Entity ID", "Method", "Path", "Status", "IP Address", "Duration (ms)", "Details" };
+
     @Autowired
     private UserRepository userRepository;
     @Autowired
@@ -31,151 +81,263 @@ public class ExportService {
     private AttributionRepository attributionRepository;
     @Autowired
     private RequestRepository requestRepository;
+    @Autowired
+    private AssignmentHistoryRepository assignmentHistoryRepository;
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    @Autowired
+    private ParallelExportExecutor parallelExportExecutor;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-    public ByteArrayInputStream exportUsers(String format) {
-        List<UserDto> users = userRepository.findAll().stream().map(UserDto::new).toList();
-        List<String[]> rows = new ArrayList<>();
-        rows.add(new String[] { "ID", "Name", "Email", "Role", "Department", "Position", "Status", "Join Date", "Phone",
-                "Address", "Manager" });
-        for (UserDto user : users) {
-            rows.add(new String[] {
-                    String.valueOf(user.getId()),
-                    user.getName(),
-                    user.getEmail(),
-                    user.getRole() != null ? user.getRole().name() : "",
-                    user.getDepartment(),
-                    user.getPosition() != null ? user.getPosition() : "",
-                    user.getStatus() != null ? user.getStatus().name() : "",
-                    user.getJoinDate() != null ? user.getJoinDate().toString() : "",
-                    user.getPhone() != null ? user.getPhone() : "",
-                    user.getAddress() != null ? user.getAddress() : "",
-                    user.getManager() != null ? user.getManager() : ""
-            });
-        }
-        if ("excel".equalsIgnoreCase(format)) {
-            return ExcelExportUtil.writeToExcel(rows);
+    @Value("${export.parallel.enabled:true}")
+    private boolean parallelEnabled;
+    @Value("${export.parallel.min-rows:20000}")
+    private long parallelMinRows;
+    @Autowired
+    private ExportTombstoneService exportTombstoneService;
+    @Autowired
+    private ExportTombstoneRepository exportTombstoneRepository;
+
+    @Value("${export.delta.overlap:60000}")
+    private long deltaOverlapMillis;
+
+    /**
+     * Streams one entity set to {@code out}. {@code rowsWritten}, when given, is
+     * advanced as rows are written so callers can report progress.
+     * Not transactional as a whole: a parallel export holds only its range workers'
+     * connections, while a sequential one reads its cursor in a single read-only transaction.
+     */
+    public void export(String entity, String format, OutputStream out, AtomicLong rowsWritten) {
+        if (PHONES.equals(entity) && useParallel(format, phoneRepository.count())) {
+            writeRowsInParallel(out, rowsWritten, PHONE_HEADER, phoneRepository.findIdRange(),
+                    phoneRepository::streamExportRowsInRange);
+        } else if (ATTRIBUTIONS.equals(entity) && useParallel(format, attributionRepository.count())) {
+            writeRowsInParallel(out, rowsWritten, ATTRIBUTION_HEADER, attributionRepository.findIdRange(),
+                    attributionRepository::streamExportRowsInRange);
         } else {
-            return CsvExportUtil.writeToCsv(rows);
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+            readOnlyTransaction.setReadOnly(true);
+            readOnlyTransaction.executeWithoutResult(status ->
+                    writeRows(format, out, rowsWritten, headerOf(entity), () -> streamRows(entity)));
         }
     }
 
-    public ByteArrayInputStream exportPhones(String format) {
-        List<PhoneDto> phones = phoneRepository.findAll().stream().map(PhoneDto::new).toList();
-        List<String[]> rows = new ArrayList<>();
-        rows.add(new String[] { "ID", "Brand", "Model", "IMEI 1", "IMEI 2", "Status", "Assigned To ID",
-                "Assigned To Name", "Assigned Date", "Notes" });
-        for (PhoneDto phone : phones) {
-            rows.add(new String[] {
-                    String.valueOf(phone.getId()),
-                    phone.getBrand(),
-                    phone.getModel(),
-                    phone.getImei1(),
-                    phone.getImei2() != null ? phone.getImei2() : "",
-                    phone.getStatus() != null ? phone.getStatus().name() : "",
-                    phone.getAssignedToId() != null ? phone.getAssignedToId().toString() : "",
-                    phone.getAssignedToName() != null ? phone.getAssignedToName() : "",
-                    phone.getAssignedDate() != null ? phone.getAssignedDate().toString() : "",
-                    phone.getNotes() != null ? phone.getNotes() : ""
-            });
-        }
-        if ("excel".equalsIgnoreCase(format)) {
-            return ExcelExportUtil.writeToExcel(rows);
-        } else {
-            return CsvExportUtil.writeToCsv(rows);
-        }
+    /**
+     * Streams the whole audit trail. Not part of ENTITIES: jobs, delta exports and
+     * bundles are open to assigners, the audit trail only to admins.
+     */
+    @Transactional(readOnly = true)
+    public void exportAuditLogs(String format, OutputStream out) {
+        writeRows(format, out, null, AUDIT_LOG_HEADER, auditLogRepository::streamExportRows);
+    }
+
+    /** Streams the audit logs matching {@code filter}, with the same columns as the full export. */
+    @Transactional(readOnly = true)
+    public void exportAuditLogs(Specification<AuditLog> filter, String format, OutputStream out) {
+        writeRows(format, out, null, AUDIT_LOG_HEADER, () -> auditLogRepository.streamExportRowsMatching(filter));
+    }
+
+    /**
+     * Opens the projection cursor of one entity set. Must be called inside a transaction
+     * and closed by the caller; cells are rendered with {@link #toCells}.
+     */
+    public Stream<Object[]> streamRows(String entity) {
+        return switch (entity) {
+            case USERS -> userRepository.streamExportRows();
+            case PHONES -> phoneRepository.streamExportRows();
+            case SIM_CARDS -> simCardRepository.streamExportRows();
+            case ATTRIBUTIONS -> attributionRepository.streamExportRows();
+            case REQUESTS -> requestRepository.streamExportRows();
+            case ASSIGNMENT_HISTORY -> assignmentHistoryRepository.streamExportRows();
+            default -> throw new RuntimeException("Unknown export entity: " + entity);
+        };
     }
 
-    public ByteArrayInputStream exportSimCards(String format) {
-        List<SimCardDto> sims = simCardRepository.findAll().stream().map(SimCardDto::new).toList();
-        List<String[]> rows = new ArrayList<>();
-        rows.add(new String[] { "ID", "Number", "ICCID", "Status", "Assigned To ID", "Assigned To Name",
-                "Assigned Date", "Notes", "PIN", "PUK", "POKE" });
-        for (SimCardDto sim : sims) {
-            rows.add(new String[] {
-                    String.valueOf(sim.getId()),
-                    sim.getNumber(),
-                    sim.getIccid(),
-                    sim.getStatus() != null ? sim.getStatus().name() : "",
-                    sim.getAssignedToId() != null ? sim.getAssignedToId().toString() : "",
-                    sim.getAssignedToName() != null ? sim.getAssignedToName() : "",
-                    sim.getAssignedDate() != null ? sim.getAssignedDate().toString() : "",
-                    sim.getNotes() != null ? sim.getNotes() : "",
-                    sim.getPin(),
-                    sim.getPuk(),
-                    sim.getPoke()
-            });
+    /**
+     * Streams the rows of one entity set created or modified since {@code since}, each
+     * prefixed with an UPSERT marker, followed by DELETE rows for ids removed since then.
+     * The window is widened by the configured overlap so rows committed late by a slow
+     * transaction are not missed; clients must treat repeated upserts as idempotent.
+     */
+    @Transactional(readOnly = true)
+    public void exportChanges(String entity, String format, LocalDateTime since, OutputStream out) {
+        LocalDateTime from = since.minus(deltaOverlapMillis, ChronoUnit.MILLIS);
+        Supplier<Stream<Object[]>> query = switch (entity) {
+            case USERS -> () -> userRepository.streamExportRowsChangedSince(from);
+            case PHONES -> () -> phoneRepository.streamExportRowsChangedSince(from);
+            case SIM_CARDS -> () -> simCardRepository.streamExportRowsChangedSince(from);
+            case ATTRIBUTIONS -> () -> attributionRepository.streamExportRowsChangedSince(from);
+            case REQUESTS -> () -> requestRepository.streamExportRowsChangedSince(from);
+            // History is append-only, so its date is the change watermark
+            case ASSIGNMENT_HISTORY -> () -> assignmentHistoryRepository.streamExportRowsChangedSince(from);
+            default -> throw new RuntimeException("Unknown export entity: " + entity);
+        };
+        String[] header = headerOf(entity);
+        String[] changeHeader = new String[header.length + 1];
+        changeHeader[0] = "Change";
+        System.arraycopy(header, 0, changeHeader, 1, header.length);
+        try (TabularWriter writer = TabularWriter.open(format, out)) {
+            writer.writeRow(changeHeader);
+            // One cursor at a time: a second open statement would make the SQL Server
+            // driver buffer the rest of the first result set in memory
+            try (Stream<Object[]> rows = query.get()) {
+                int count = 0;
+                for (Iterator<Object[]> it = rows.iterator(); it.hasNext();) {
+                    String[] cells = toCells(it.next());
+                    String[] row = new String[cells.length + 1];
+                    row[0] = "UPSERT";
+                    System.arraycopy(cells, 0, row, 1, cells.length);
+                    writer.writeRow(row);
+                    if (++count % FLUSH_INTERVAL == 0) {
+                        writer.flush();
+                    }
+                }
+            }
+            try (Stream<Long> deletedIds = exportTombstoneRepository.streamDeletedIdsSince(entity, from)) {
+                for (Iterator<Long> it = deletedIds.iterator(); it.hasNext();) {
+                    String[] row = new String[changeHeader.length];
+                    Arrays.fill(row, "");
+                    row[0] = "DELETE";
+                    row[1] = String.valueOf(it.next());
+                    writer.writeRow(row);
+                }
+            }
         }
-        if ("excel".equalsIgnoreCase(format)) {
-            return ExcelExportUtil.writeToExcel(rows);
+    }
+
+    /**
+     * Opaque token recording the current time as the watermark of the next delta export.
+     * Issue it before the export runs so changes made while it streams are picked up next time.
+     */
+    public static String issueChangeToken() {
+        String watermark = "v1|" + LocalDateTime.now();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(watermark.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Resolves the watermark of a delta export from a change token or an ISO timestamp.
+     */
+    public LocalDateTime resolveChangeWatermark(String token, String since) {
+        LocalDateTime watermark;
+        if (token != null && !token.isBlank()) {
+            watermark = decodeChangeToken(token);
+        } else if (since != null && !since.isBlank()) {
+            try {
+                watermark = LocalDateTime.parse(since);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid since timestamp");
+            }
         } else {
-            return CsvExportUtil.writeToCsv(rows);
+            throw new IllegalArgumentException("A change token or since timestamp is required");
+        }
+        if (watermark.isBefore(exportTombstoneService.getRetentionHorizon())) {
+            throw new IllegalArgumentException("Change token is older than the deletion log; run a full export");
         }
+        return watermark;
     }
 
-    public ByteArrayInputStream exportAttributions(String format) {
-        List<AttributionDto> attributions = attributionRepository.findAll().stream().map(AttributionDto::new).toList();
-        List<String[]> rows = new ArrayList<>();
-        rows.add(new String[] { "ID", "User ID", "User Name", "User Email", "Phone ID", "Phone Model", "Phone Brand",
-                "SIM Card ID", "SIM Card Number", "Assigned By ID", "Assigned By Name", "Assignment Date",
-                "Return Date", "Status", "Notes", "Created At", "Updated At" });
-        for (AttributionDto attr : attributions) {
-            rows.add(new String[] {
-                    String.valueOf(attr.getId()),
-                    attr.getUserId() != null ? attr.getUserId().toString() : "",
-                    attr.getUserName() != null ? attr.getUserName() : "",
-                    attr.getUserEmail() != null ? attr.getUserEmail() : "",
-                    attr.getPhoneId() != null ? attr.getPhoneId().toString() : "",
-                    attr.getPhoneModel() != null ? attr.getPhoneModel() : "",
-                    attr.getPhoneBrand() != null ? attr.getPhoneBrand() : "",
-                    attr.getSimCardId() != null ? attr.getSimCardId().toString() : "",
-                    attr.getSimCardNumber() != null ? attr.getSimCardNumber() : "",
-                    attr.getAssignedById() != null ? attr.getAssignedById().toString() : "",
-                    attr.getAssignedByName() != null ? attr.getAssignedByName() : "",
-                    attr.getAssignmentDate() != null ? attr.getAssignmentDate().toString() : "",
-                    attr.getReturnDate() != null ? attr.getReturnDate().toString() : "",
-                    attr.getStatus() != null ? attr.getStatus().name() : "",
-                    attr.getNotes() != null ? attr.getNotes() : "",
-                    attr.getCreatedAt() != null ? attr.getCreatedAt().toString() : "",
-                    attr.getUpdatedAt() != null ? attr.getUpdatedAt().toString() : ""
-            });
-        }
-        if ("excel".equalsIgnoreCase(format)) {
-            return ExcelExportUtil.writeToExcel(rows);
-        } else {
-            return CsvExportUtil.writeToCsv(rows);
+    private static LocalDateTime decodeChangeToken(String token) {
+        try {
+            String watermark = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = watermark.split("\\|");
+            if (parts.length != 2 || !"v1".equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid change token");
+            }
+            return LocalDateTime.parse(parts[1]);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid change token");
         }
     }
 
-    public ByteArrayInputStream exportRequests(String format) {
-        List<RequestDto> requests = requestRepository.findAll().stream().map(RequestDto::new).toList();
-        List<String[]> rows = new ArrayList<>();
-        rows.add(new String[] { "ID", "User ID", "User Name", "User Email", "Type", "Title", "Description", "Status",
-                "Priority", "Assigned To ID", "Assigned To Name", "Created At", "Updated At", "Resolved At",
-                "Resolution" });
-        for (RequestDto req : requests) {
-            rows.add(new String[] {
-                    String.valueOf(req.getId()),
-                    req.getUserId() != null ? req.getUserId().toString() : "",
-                    req.getUserName() != null ? req.getUserName() : "",
-                    req.getUserEmail() != null ? req.getUserEmail() : "",
-                    req.getType() != null ? req.getType().name() : "",
-                    req.getTitle() != null ? req.getTitle() : "",
-                    req.getDescription() != null ? req.getDescription() : "",
-                    req.getStatus() != null ? req.getStatus().name() : "",
-                    req.getPriority() != null ? req.getPriority().name() : "",
-                    req.getAssignedToId() != null ? req.getAssignedToId().toString() : "",
-                    req.getAssignedToName() != null ? req.getAssignedToName() : "",
-                    req.getCreatedAt() != null ? req.getCreatedAt().toString() : "",
-                    req.getUpdatedAt() != null ? req.getUpdatedAt().toString() : "",
-                    req.getResolvedAt() != null ? req.getResolvedAt().toString() : "",
-                    req.getResolution() != null ? req.getResolution() : ""
-            });
+    /**
+     * Row count used as the progress estimate of an export.
+     */
+    public long countRows(String entity) {
+        return switch (entity) {
+            case USERS -> userRepository.count();
+            case PHONES -> phoneRepository.count();
+            case SIM_CARDS -> simCardRepository.count();
+            case ATTRIBUTIONS -> attributionRepository.count();
+            case REQUESTS -> requestRepository.count();
+            case ASSIGNMENT_HISTORY -> assignmentHistoryRepository.count();
+            default -> throw new RuntimeException("Unknown export entity: " + entity);
+        };
+    }
+
+    /** Current watermark of an export entity; an unchanged watermark means unchanged export content. */
+    public DataWatermark dataWatermark(String entity) {
+        return switch (entity) {
+            case USERS -> userRepository.findDataWatermark();
+            case PHONES -> phoneRepository.findDataWatermark();
+            case SIM_CARDS -> simCardRepository.findDataWatermark();
+            case ATTRIBUTIONS -> attributionRepository.findDataWatermark();
+            case REQUESTS -> requestRepository.findDataWatermark();
+            case ASSIGNMENT_HISTORY -> assignmentHistoryRepository.findDataWatermark();
+            default -> throw new RuntimeException("Unknown export entity: " + entity);
+        };
+    }
+
+    public static String[] headerOf(String entity) {
+        return switch (entity) {
+            case USERS -> USER_HEADER;
+            case PHONES -> PHONE_HEADER;
+            case SIM_CARDS -> SIM_CARD_HEADER;
+            case ATTRIBUTIONS -> ATTRIBUTION_HEADER;
+            case REQUESTS -> REQUEST_HEADER;
+            case ASSIGNMENT_HISTORY -> ASSIGNMENT_HISTORY_HEADER;
+            default -> throw new RuntimeException("Unknown export entity: " + entity);
+        };
+    }
+
+    /**
+     * Large CSV exports are split into key ranges and encoded on several workers;
+     * Excel output is a single workbook and always written sequentially.
+     */
+    private boolean useParallel(String format, long rows) {
+        return parallelEnabled && !"excel".equalsIgnoreCase(format) && rows >= parallelMinRows;
+    }
+
+    /**
+     * Writes rows as they come off the cursor, flushing every batch so output
+     * reaches the client while the query is still running.
+     */
+    private void writeRows(String format, OutputStream out, AtomicLong rowsWritten, String[] header,
+            Supplier<Stream<Object[]>> query) {
+        try (Stream<Object[]> rows = query.get();
+             TabularWriter writer = TabularWriter.open(format, out)) {
+            writer.writeRow(header);
+            int count = 0;
+            for (Iterator<Object[]> it = rows.iterator(); it.hasNext();) {
+                writer.writeRow(toCells(it.next()));
+                if (rowsWritten != null) {
+                    rowsWritten.incrementAndGet();
+                }
+                if (++count % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
         }
-        if ("excel".equalsIgnoreCase(format)) {
-            return ExcelExportUtil.writeToExcel(rows);
-        } else {
-            return CsvExportUtil.writeToCsv(rows);
+    }
+
+    private void writeRowsInParallel(OutputStream out, AtomicLong rowsWritten, String[] header, IdRange ids,
+            BiFunction<Long, Long, Stream<Object[]>> rangeQuery) {
+        parallelExportExecutor.exportCsv(header, ids, rangeQuery, ExportService::toCells, out, rowsWritten);
+    }
+
+    public static String[] toCells(Object[] tuple) {
+        String[] cells = new String[tuple.length];
+        for (int i = 0; i < tuple.length; i++) {
+            Object value = tuple[i];
+            if (value == null) {
+                cells[i] = "";
+            } else if (value instanceof Enum<?> constant) {
+                cells[i] = constant.name();
+            } else {
+                cells[i] = value.toString();
+            }
         }
+        return cells;
     }
 
     public ByteArrayInputStream exportPhonesToCsv() {
@@ -197,9 +359,4 @@ public class ExportService {
         String csv = "id,user_id,type,status,created_at,processed_by\n";
         return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
     }
-
-    public ByteArrayInputStream exportAuditLogsToCsv() {
-        String csv = "id,user_id,action,entity,entity_id,timestamp,details\n";
-        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
-    }
 }
\ No newline at end of file
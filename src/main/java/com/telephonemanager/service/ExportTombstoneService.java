@@ -0,0 +1,59 @@
+package com.telephonemanager.service;
+
+import com.telephonemanager.entity.ExportTombstone;
+import com.telephonemanager.event.InventoryChangeEvent;
+import com.telephonemanager.repository.ExportTombstoneRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keeps the deletion log behind delta exports. Deletes announced through
+ * InventoryChangeEvent are recorded in the deleting transaction; requests,
+ * which publish no events, are recorded by RequestService directly.
+ */
+@Service
+public class ExportTombstoneService {
+    @Autowired
+    private ExportTombstoneRepository exportTombstoneRepository;
+
+    @Value("${export.delta.tombstone-retention-days:30}")
+    private int retentionDays;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        if (event.getAction() != InventoryChangeEvent.Action.DELETE) {
+            return;
+        }
+        switch (event.getItemType()) {
+            case PHONE -> record(ExportService.PHONES, event.getItemId());
+            case SIM -> record(ExportService.SIM_CARDS, event.getItemId());
+            case USER -> record(ExportService.USERS, event.getItemId());
+            case ATTRIBUTION -> record(ExportService.ATTRIBUTIONS, event.getItemId());
+        }
+    }
+
+    public void record(String entity, Long entityId) {
+        exportTombstoneRepository.save(new ExportTombstone(entity, entityId));
+    }
+
+    /**
+     * Oldest point a change token may refer to; older tokens could miss purged deletions.
+     */
+    public LocalDateTime getRetentionHorizon() {
+        return LocalDateTime.now().minusDays(retentionDays);
+    }
+
+    @Scheduled(cron = "${export.delta.tombstone-purge-cron:0 30 1 * * *}")
+    public void purgeExpired() {
+        int purged = exportTombstoneRepository.deleteByDeletedAtBefore(getRetentionHorizon());
+        if (purged > 0) {
+            System.out.println("Purged " + purged + " export tombstones older than " + retentionDays + " days");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.telephonemanager.service;
+
+import com.telephonemanager.dto.EntityStats;
+import com.telephonemanager.entity.Phone;
+import com.telephonemanager.entity.SimCard;
+import com.telephonemanager.entity.User;
+import com.telephonemanager.repository.PhoneRepository;
+import com.telephonemanager.repository.SimCardRepository;
+import com.telephonemanager.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Single-query aggregations of each entity's status (or role) distribution,
+ * total and assigned counts.
+ */
+@Service
+public class InventoryAggregationService {
+    @Autowired
+    private PhoneRepository phoneRepository;
+    @Autowired
+    private SimCardRepository simCardRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    public EntityStats<Phone.Status> aggregatePhones() {
+        return EntityStats.from(Phone.Status.class, phoneRepository.aggregateByStatus());
+    }
+
+    public EntityStats<SimCard.Status> aggregateSimCards() {
+        return EntityStats.from(SimCard.Status.class, simCardRepository.aggregateByStatus());
+    }
+
+    public EntityStats<User.UserRole> aggregateUsers() {
+        return EntityStats.from(User.UserRole.class, userRepository.aggregateByRole());
+    }
+}
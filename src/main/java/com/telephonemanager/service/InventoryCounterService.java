@@ -0,0 +1,321 @@
+package com.telephonemanager.service;
+
+import com.telephonemanager.dto.EntityStats;
+import com.telephonemanager.entity.AssignmentHistory;
+import com.telephonemanager.entity.Phone;
+import com.telephonemanager.entity.SimCard;
+import com.telephonemanager.entity.User;
+import com.telephonemanager.event.AssignmentRecordedEvent;
+import com.telephonemanager.event.InventoryChangeEvent;
+import com.telephonemanager.event.InventoryChangeEvent.ItemState;
+import com.telephonemanager.repository.AssignmentHistoryRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory inventory counters backing the dashboard overview.
+ * Counters are adjusted from the before/after states carried by InventoryChangeEvent
+ * once the publishing transaction commits, so reads never hit the database.
+ * A periodic reconciliation against the repositories corrects any drift, e.g. from
+ * rolled-back transactions or rows written outside the services. Changes committed
+ * while it runs are buffered and replayed on top of the reconciled values, so none is
+ * overwritten by them; only one committed while the source queries are scanning can
+ * still be counted twice or missed, until the next reconciliation.
+ * <p>
+ * Reads never query the database: until the first reconciliation succeeds they return
+ * the current counters while a background reconciliation is retried with backoff.
+ */
+@Service
+public class InventoryCounterService {
+    private static final long INITIAL_RETRY_MILLIS = 1_000;
+    private static final long MAX_RETRY_MILLIS = 300_000;
+
+    @Autowired
+    private InventoryAggregationService inventoryAggregationService;
+    @Autowired
+    private AssignmentHistoryRepository assignmentHistoryRepository;
+    @Autowired
+    private DashboardQueryExecutor dashboardQueryExecutor;
+
+    private final AtomicLong totalPhones = new AtomicLong();
+    private final AtomicLong assignedPhones = new AtomicLong();
+    private final Map<Phone.Status, AtomicLong> phonesByStatus = newCounters(Phone.Status.class);
+
+    private final AtomicLong totalSimCards = new AtomicLong();
+    private final AtomicLong assignedSimCards = new AtomicLong();
+    private final Map<SimCard.Status, AtomicLong> simCardsByStatus = newCounters(SimCard.Status.class);
+
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final Map<User.UserRole, AtomicLong> usersByRole = newCounters(User.UserRole.class);
+
+    // History rows of the trailing week; aged-out rows are dropped on reconciliation
+    private final AtomicLong recentHistory = new AtomicLong();
+    private final AtomicLong recentUnassignments = new AtomicLong();
+
+    private volatile boolean initialized = false;
+
+    // Guards pending; held only for in-memory counter updates
+    private final Object updateLock = new Object();
+    // One reconciliation at a time
+    private final Object reconcileLock = new Object();
+    // Changes committed during a reconciliation, replayed after it; null when none is running
+    private List<Runnable> pending;
+
+    private final ExecutorService reconcileExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "inventory-counter-reconcile");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean reconcileQueued = new AtomicBoolean();
+    // Earliest System.nanoTime() at which a failed reconciliation may be retried from the read path
+    private volatile long retryAtNanos = System.nanoTime();
+    private int consecutiveFailures = 0;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        ItemState before = event.getBefore();
+        ItemState after = event.getAfter();
+        switch (event.getItemType()) {
+            case PHONE:
+                apply(() -> applyChange(totalPhones, assignedPhones, phonesByStatus,
+                        before != null ? before.<Phone.Status>getStatus() : null, before != null && before.isAssigned(),
+                        after != null ? after.<Phone.Status>getStatus() : null, after != null && after.isAssigned()));
+                break;
+            case SIM:
+                apply(() -> applyChange(totalSimCards, assignedSimCards, simCardsByStatus,
+                        before != null ? before.<SimCard.Status>getStatus() : null, before != null && before.isAssigned(),
+                        after != null ? after.<SimCard.Status>getStatus() : null, after != null && after.isAssigned()));
+                break;
+            case USER:
+                apply(() -> applyChange(totalUsers, null, usersByRole,
+                        before != null ? before.getRole() : null, false,
+                        after != null ? after.getRole() : null, false));
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssignmentRecorded(AssignmentRecordedEvent event) {
+        boolean unassignment = event.getHistory().getAction() == AssignmentHistory.Action.UNASSIGN;
+        apply(() -> {
+            recentHistory.incrementAndGet();
+            if (unassignment) {
+                recentUnassignments.incrementAndGet();
+            }
+        });
+    }
+
+    // Applies a committed change now, or after the running reconciliation has set the counters
+    private void apply(Runnable change) {
+        synchronized (updateLock) {
+            if (pending != null) {
+                pending.add(change);
+            } else {
+                change.run();
+            }
+        }
+    }
+
+    public long getTotalPhones() {
+        ensureInitialized();
+        return totalPhones.get();
+    }
+
+    public long getAssignedPhones() {
+        ensureInitialized();
+        return assignedPhones.get();
+    }
+
+    public long getPhoneCount(Phone.Status status) {
+        ensureInitialized();
+        return phonesByStatus.get(status).get();
+    }
+
+    public long getTotalSimCards() {
+        ensureInitialized();
+        return totalSimCards.get();
+    }
+
+    public long getAssignedSimCards() {
+        ensureInitialized();
+        return assignedSimCards.get();
+    }
+
+    public long getSimCardCount(SimCard.Status status) {
+        ensureInitialized();
+        return simCardsByStatus.get(status).get();
+    }
+
+    public long getTotalUsers() {
+        ensureInitialized();
+        return totalUsers.get();
+    }
+
+    public long getUserCount(User.UserRole role) {
+        ensureInitialized();
+        return usersByRole.get(role).get();
+    }
+
+    public long getRecentHistoryCount() {
+        ensureInitialized();
+        return recentHistory.get();
+    }
+
+    public long getRecentUnassignmentCount() {
+        ensureInitialized();
+        return recentUnassignments.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.counters.reconcile-interval:300000}",
+            initialDelayString = "${dashboard.counters.reconcile-interval:300000}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            synchronized (updateLock) {
+                pending = new ArrayList<>();
+            }
+            try {
+                reconcileCounters();
+                consecutiveFailures = 0;
+            } catch (Exception e) {
+                consecutiveFailures++;
+                long retryMillis = Math.min(MAX_RETRY_MILLIS,
+                        INITIAL_RETRY_MILLIS << Math.min(consecutiveFailures - 1, 20));
+                retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryMillis);
+                System.err.println("Inventory counter reconciliation failed, retry in " + retryMillis + "ms: "
+                        + e.getMessage());
+            } finally {
+                // On success the buffered changes land on the reconciled values, on failure on the old ones
+                synchronized (updateLock) {
+                    pending.forEach(Runnable::run);
+                    pending = null;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reconcileExecutor.shutdownNow();
+    }
+
+    private void reconcileCounters() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime weekAgo = now.minusDays(7);
+
+        // The five source queries are independent; all must complete before any counter is reset
+        DashboardQueryExecutor.Batch batch = dashboardQueryExecutor.newBatch()
+                .submit("phones", inventoryAggregationService::aggregatePhones)
+                .submit("simCards", inventoryAggregationService::aggregateSimCards)
+                .submit("users", inventoryAggregationService::aggregateUsers)
+                .submit("recentHistory", () -> assignmentHistoryRepository.countByDateAfter(weekAgo))
+                .submit("recentUnassignments", () -> assignmentHistoryRepository.countByDateBetweenAndAction(
+                        weekAgo, now, AssignmentHistory.Action.UNASSIGN))
+                .await();
+        EntityStats<Phone.Status> phones = batch.require("phones");
+        EntityStats<SimCard.Status> simCards = batch.require("simCards");
+        EntityStats<User.UserRole> users = batch.require("users");
+        long recentHistoryCount = batch.require("recentHistory");
+        long recentUnassignmentCount = batch.require("recentUnassignments");
+
+        totalPhones.set(phones.getTotal());
+        assignedPhones.set(phones.getAssigned());
+        phones.getDistribution().forEach((status, count) -> phonesByStatus.get(status).set(count));
+
+        totalSimCards.set(simCards.getTotal());
+        assignedSimCards.set(simCards.getAssigned());
+        simCards.getDistribution().forEach((status, count) -> simCardsByStatus.get(status).set(count));
+
+        totalUsers.set(users.getTotal());
+        users.getDistribution().forEach((role, count) -> usersByRole.get(role).set(count));
+
+        recentHistory.set(recentHistoryCount);
+        recentUnassignments.set(recentUnassignmentCount);
+
+        initialized = true;
+    }
+
+    // At most one queued reconciliation, and none before the backoff of the last failure has passed
+    private void ensureInitialized() {
+        if (initialized || System.nanoTime() - retryAtNanos < 0 || !reconcileQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            reconcileExecutor.execute(() -> {
+                try {
+                    reconcile();
+                } finally {
+                    reconcileQueued.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reconcileQueued.set(false);
+        }
+    }
+
+    private static <E extends Enum<E>> void applyChange(AtomicLong total, AtomicLong assigned,
+            Map<E, AtomicLong> byStatus, E oldStatus, boolean wasAssigned, E newStatus, boolean isAssigned) {
+        if (oldStatus == null && newStatus != null) {
+            total.incrementAndGet();
+        } else if (oldStatus != null && newStatus == null) {
+            total.decrementAndGet();
+        }
+        if (oldStatus != newStatus) {
+            if (oldStatus != null) {
+                byStatus.get(oldStatus).decrementAndGet();
+            }
+            if (newStatus != null) {
+                byStatus.get(newStatus).incrementAndGet();
+            }
+        }
+        if (assigned != null) {
+            boolean before = oldStatus != null && wasAssigned;
+            boolean after = newStatus != null && isAssigned;
+            if (before && !after) {
+                assigned.decrementAndGet();
+            } else if (!before && after) {
+                assigned.incrementAndGet();
+            }
+        }
+    }
+
+    private static <E extends Enum<E>> Map<E, AtomicLong> newCounters(Class<E> type) {
+        Map<E, AtomicLong> counters = new EnumMap<>(type);
+        for (E constant : type.getEnumConstants()) {
+            counters.put(constant, new AtomicLong());
+        }
+        return Collections.unmodifiableMap(counters);
+    }
+}
@@ -0,0 +1,61 @@
+package com.telephonemanager.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buffers last-login times and writes them periodically as one JDBC batch that
+ * updates only the last_login column, instead of saving the whole user row on every
+ * login. Repeated logins of a user between flushes collapse into one update.
+ */
+@Service
+public class LastLoginRecorder {
+    private static final String UPDATE_SQL = "UPDATE users SET last_login = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public void record(Long userId, LocalDateTime loginTime) {
+        pending.merge(userId, loginTime, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.last-login.flush-interval:10000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, LocalDateTime>> batch = new ArrayList<>();
+        for (Map.Entry<Long, LocalDateTime> entry : pending.entrySet()) {
+            // A login recorded after this snapshot keeps its entry for the next flush
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, entry) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(entry.getValue()));
+                ps.setLong(2, entry.getKey());
+            });
+        } catch (RuntimeException e) {
+            System.err.println("Last login flush failed, retrying later: " + e.getMessage());
+            batch.forEach(entry -> record(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
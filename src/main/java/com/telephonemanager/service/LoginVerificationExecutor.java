@@ -0,0 +1,80 @@
+package com.telephonemanager.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hash checks on a small dedicated pool so a burst of logins cannot
+ * take every core away from the rest of the API. Checks beyond the queue limit are
+ * refused at once instead of piling up behind the running ones.
+ */
+@Service
+public class LoginVerificationExecutor {
+
+    /** Thrown when the verification pool is saturated; the login can be retried shortly. */
+    public static class BusyException extends RuntimeException {
+        public BusyException(String message) {
+            super(message);
+        }
+    }
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public LoginVerificationExecutor(
+            @Value("${auth.login.threads:2}") int threads,
+            @Value("${auth.login.queue-capacity:50}") int queueCapacity,
+            @Value("${auth.login.verify-timeout:5000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-verify-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        } catch (RejectedExecutionException e) {
+            throw new BusyException("Too many logins in progress, please retry shortly");
+        }
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new BusyException("Login verification timed out, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Login verification interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Login verification failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
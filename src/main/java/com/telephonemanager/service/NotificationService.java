@@ -1,13 +1,8 @@
 package com.telephonemanager.service;
 
-import com.telephonemanager.entity.Attribution;
-import com.telephonemanager.entity.Attribution.Status;
-import com.telephonemanager.entity.Phone;
 import com.telephonemanager.entity.User;
-import com.telephonemanager.repository.AttributionRepository;
 import com.telephonemanager.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
@@ -16,8 +11,10 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
 import com.telephonemanager.entity.User.UserRole;
 
@@ -27,7 +24,7 @@ public class NotificationService {
     private UserRepository userRepository;
 
     @Autowired
-    private AttributionRepository attributionRepository;
+    private RenewalIndex renewalIndex;
 
     /**
      * Returns computed notifications for the current user.
@@ -66,81 +63,25 @@ public class NotificationService {
             return result;
         }
 
-        // Fetch all ACTIVE attributions in a pagination-safe manner
-        List<Attribution> activeAttributions = new ArrayList<>();
-        int current = 0;
-        int pageSize = 200;
-        while (true) {
-            Page<Attribution> p = attributionRepository.findByStatus(Status.ACTIVE, PageRequest.of(current, pageSize));
-            if (p.getContent().isEmpty()) break;
-            activeAttributions.addAll(p.getContent());
-            if (current >= p.getTotalPages() - 1) break;
-            current++;
-        }
-
         LocalDate today = LocalDate.now();
 
-        // Build bucketed renewal notifications with stable IDs to avoid duplicates
-        List<Map<String, Object>> allNotifications = new ArrayList<>();
-        for (Attribution attr : activeAttributions) {
-            LocalDate assignmentDate = attr.getAssignmentDate() != null ? attr.getAssignmentDate() :
-                    (attr.getCreatedAt() != null ? attr.getCreatedAt().toLocalDate() : today);
-            LocalDate renewalDate = assignmentDate.plusYears(2);
-            long daysUntil = ChronoUnit.DAYS.between(today, renewalDate);
-
-            String bucket;
-            if (daysUntil <= 0) {
-                bucket = "OVERDUE"; // past due
-            } else if (daysUntil <= 30) {
-                bucket = "30";
-            } else if (daysUntil <= 60) {
-                bucket = "60";
-            } else if (daysUntil <= 90) {
-                bucket = "90";
-            } else {
-                continue; // outside tracked windows
-            }
-
-            Phone phone = attr.getPhone();
-            String phoneLabel = phone != null ?
-                    (phone.getBrand() != null ? phone.getBrand() : "") + " " + (phone.getModel() != null ? phone.getModel() : "") :
-                    "Appareil";
-
-            String title = bucket.equals("OVERDUE") ?
-                    "Renouvellement de téléphone en retard" :
-                    "Renouvellement de téléphone dans " + daysUntil + " jours";
-
-            String message = String.format(
-                    "%s – Utilisateur: %s | Département: %s | Échéance: %s",
-                    phoneLabel.trim(),
-                    attr.getUser() != null ? attr.getUser().getName() : "Utilisateur",
-                    attr.getUser() != null ? (attr.getUser().getDepartment() != null ? attr.getUser().getDepartment() : "-") : "-",
-                    renewalDate.toString()
-            );
-
-            String type = bucket.equals("OVERDUE") ? "warning" : (daysUntil <= 30 ? "warning" : "info");
-
-            String stableId = "RENEWAL-ATTR-" + attr.getId() + "-B" + bucket;
-
-            Map<String, Object> notif = new HashMap<>();
-            notif.put("id", stableId);
-            notif.put("title", title);
-            notif.put("message", message);
-            notif.put("type", type);
-            notif.put("createdAt", LocalDateTime.now().toString());
-            notif.put("read", false);
-            // Route hint for frontend by role
-            String route = role == UserRole.ASSIGNER ? "/assigner-dashboard/attributions" : "/admin-dashboard/attributions";
-            notif.put("actionUrl", route);
-            allNotifications.add(notif);
-        }
-
-        // Server-side pagination of computed notifications for consistency
-        int total = allNotifications.size();
+        // Renewals due within the widest window (90 days), overdue first; only the requested page is formatted
+        NavigableSet<RenewalIndex.Renewal> due = renewalIndex.dueBy(today.plusDays(90));
+        int total = due.size();
         int totalPages = (int) Math.ceil(total / (double) limit);
         int fromIndex = Math.max(0, Math.min((page - 1) * limit, total));
         int toIndex = Math.max(fromIndex, Math.min(fromIndex + limit, total));
-        List<Map<String, Object>> paged = allNotifications.subList(fromIndex, toIndex);
+
+        // Route hint for frontend by role
+        String route = role == UserRole.ASSIGNER ? "/assigner-dashboard/attributions" : "/admin-dashboard/attributions";
+        List<Map<String, Object>> paged = new ArrayList<>(toIndex - fromIndex);
+        Iterator<RenewalIndex.Renewal> it = due.iterator();
+        for (int i = 0; i < toIndex && it.hasNext(); i++) {
+            RenewalIndex.Renewal renewal = it.next();
+            if (i >= fromIndex) {
+                paged.add(toNotification(renewal, today, route));
+            }
+        }
 
         result.put("notifications", paged);
         result.put("pagination", Map.of(
@@ -152,6 +93,50 @@ public class NotificationService {
         return result;
     }
 
+    // Bucketed renewal notification with a stable ID to avoid duplicates
+    private Map<String, Object> toNotification(RenewalIndex.Renewal renewal, LocalDate today, String route) {
+        long daysUntil = ChronoUnit.DAYS.between(today, renewal.dueDate());
+
+        String bucket;
+        if (daysUntil <= 0) {
+            bucket = "OVERDUE"; // past due
+        } else if (daysUntil <= 30) {
+            bucket = "30";
+        } else if (daysUntil <= 60) {
+            bucket = "60";
+        } else {
+            bucket = "90";
+        }
+
+        String phoneLabel = renewal.phoneLabel() != null ? renewal.phoneLabel() : "Appareil";
+
+        String title = bucket.equals("OVERDUE") ?
+                "Renouvellement de téléphone en retard" :
+                "Renouvellement de téléphone dans " + daysUntil + " jours";
+
+        String message = String.format(
+                "%s – Utilisateur: %s | Département: %s | Échéance: %s",
+                phoneLabel,
+                renewal.userId() != null ? renewal.userName() : "Utilisateur",
+                renewal.userId() != null ? (renewal.department() != null ? renewal.department() : "-") : "-",
+                renewal.dueDate().toString()
+        );
+
+        String type = bucket.equals("OVERDUE") ? "warning" : (daysUntil <= 30 ? "warning" : "info");
+
+        String stableId = "RENEWAL-ATTR-" + renewal.attributionId() + "-B" + bucket;
+
+        Map<String, Object> notif = new HashMap<>();
+        notif.put("id", stableId);
+        notif.put("title", title);
+        notif.put("message", message);
+        notif.put("type", type);
+        notif.put("createdAt", LocalDateTime.now().toString());
+        notif.put("read", false);
+        notif.put("actionUrl", route);
+        return notif;
+    }
+
     public long getUnreadCount(String userEmail) {
         // As we do not persist notifications yet, return 0
         return 0;
@@ -0,0 +1,134 @@
+package com.telephonemanager.service;
+
+import com.telephonemanager.dto.IdRange;
+import com.telephonemanager.utils.CsvExportUtil;
+import com.telephonemanager.utils.TabularWriter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Encodes large CSV exports on several cores. The table is cut into primary-key
+ * ranges; each range is read in its own read-only transaction (and so its own
+ * connection) and encoded into a byte chunk, and the chunks are written to the
+ * output in key order. The worker count is capped by a connection budget so
+ * exports cannot drain the Hikari pool: ranges only ever run on the workers, and
+ * callers must not hold a connection of their own while exporting. Only a small
+ * window of chunks is held in memory at a time.
+ */
+@Service
+public class ParallelExportExecutor {
+    private final ThreadPoolExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int workers;
+    private final long rangeSize;
+
+    public ParallelExportExecutor(PlatformTransactionManager transactionManager,
+            @Value("${export.parallel.connection-budget:3}") int connectionBudget,
+            @Value("${export.parallel.range-size:5000}") long rangeSize) {
+        this.workers = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), connectionBudget));
+        this.rangeSize = Math.max(1, rangeSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(workers * 8),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-range-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Saturated: wait for queue space; running the range on the caller would take a connection beyond the budget
+                (runnable, pool) -> {
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("Export workers are shut down");
+                    }
+                    try {
+                        pool.getQueue().put(runnable);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting for an export worker", e);
+                    }
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public <E> void exportCsv(String[] header, IdRange ids, BiFunction<Long, Long, Stream<E>> rangeQuery,
+            Function<E, String[]> toRow, OutputStream out, AtomicLong rowsWritten) {
+        try (TabularWriter writer = CsvExportUtil.openWriter(out)) {
+            writer.writeRow(header);
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        // Each worker can have one chunk encoding and one waiting to be written
+        int window = workers * 2;
+        Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        try {
+            for (long from = ids.getMinId(); from <= ids.getMaxId(); from += rangeSize) {
+                long fromId = from;
+                long toId = Math.min(from + rangeSize - 1, ids.getMaxId());
+                pending.add(executor.submit(() -> encodeRange(fromId, toId, rangeQuery, toRow, rowsWritten)));
+                if (pending.size() >= window) {
+                    out.write(pending.poll().get());
+                }
+            }
+            while (!pending.isEmpty()) {
+                out.write(pending.poll().get());
+            }
+            out.flush();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Parallel export failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Parallel export interrupted", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write export", e);
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <E> byte[] encodeRange(long fromId, long toId, BiFunction<Long, Long, Stream<E>> rangeQuery,
+            Function<E, String[]> toRow, AtomicLong rowsWritten) {
+        return readOnlyTransaction.execute(status -> {
+            ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+            try (Stream<E> items = rangeQuery.apply(fromId, toId);
+                 TabularWriter writer = CsvExportUtil.openWriter(chunk)) {
+                for (Iterator<E> it = items.iterator(); it.hasNext();) {
+                    writer.writeRow(toRow.apply(it.next()));
+                    if (rowsWritten != null) {
+                        rowsWritten.incrementAndGet();
+                    }
+                }
+            }
+            return chunk.toByteArray();
+        });
+    }
+}
@@ -6,7 +6,10 @@ import com.telephonemanager.entity.User;
 import com.telephonemanager.repository.PhoneRepository;
 import com.telephonemanager.repository.UserRepository;
 import com.telephonemanager.entity.AssignmentHistory;
+import com.telephonemanager.event.InventoryChangeEvent;
+import com.telephonemanager.event.InventoryChangeEvent.ItemState;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -23,6 +26,8 @@ public class PhoneService {
     private UserRepository userRepository;
     @Autowired
     private AssignmentHistoryService assignmentHistoryService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public Page<PhoneDto> getPhones(int page, int limit, Phone.Status status, String brand, String model) {
         Pageable pageable = PageRequest.of(page - 1, limit);
@@ -92,6 +97,7 @@ public class PhoneService {
                     "Phone assigned on creation");
         }
         Phone saved = phoneRepository.save(phone);
+        publishChange(InventoryChangeEvent.Action.CREATE, saved.getId(), null, ItemState.of(saved));
         // If assigned, update the itemId in history
         if (dto.getAssignedToId() != null) {
             assignmentHistoryService.record(
@@ -109,6 +115,7 @@ public class PhoneService {
         Phone phone = phoneRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Phone not found"));
         Long oldUserId = phone.getAssignedTo() != null ? phone.getAssignedTo().getId() : null;
+        ItemState before = ItemState.of(phone);
         Long newUserId = dto.getAssignedToId();
         if (!phone.getImei1().equals(dto.getImei1()) && phoneRepository.findByImei1(dto.getImei1()).isPresent()) {
             throw new RuntimeException("IMEI 1 already exists");
@@ -136,6 +143,7 @@ public class PhoneService {
             phone.setAssignedDate(null);
         }
         Phone updated = phoneRepository.save(phone);
+        publishChange(InventoryChangeEvent.Action.UPDATE, updated.getId(), before, ItemState.of(updated));
         // Record assignment history
         if (oldUserId == null && newUserId != null) {
             assignmentHistoryService.record(
@@ -166,10 +174,10 @@ public class PhoneService {
     }
 
     public void deletePhone(Long id) {
-        if (!phoneRepository.existsById(id)) {
-            throw new RuntimeException("Phone not found");
-        }
-        phoneRepository.deleteById(id);
+        Phone phone = phoneRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Phone not found"));
+        phoneRepository.delete(phone);
+        publishChange(InventoryChangeEvent.Action.DELETE, id, ItemState.of(phone), null);
     }
 
     public Long getUserIdByEmail(String email) {
@@ -187,9 +195,11 @@ public class PhoneService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        ItemState before = ItemState.of(phone);
         phone.setAssignedTo(user);
         phone.setAssignedDate(LocalDate.now());
         Phone saved = phoneRepository.save(phone);
+        publishChange(InventoryChangeEvent.Action.ASSIGN, saved.getId(), before, ItemState.of(saved));
 
         // Record assignment history
         assignmentHistoryService.record(
@@ -214,9 +224,11 @@ public class PhoneService {
         Double remainingValue = calculateRemainingValue(phone);
 
         Long oldUserId = phone.getAssignedTo().getId();
+        ItemState before = ItemState.of(phone);
         phone.setAssignedTo(null);
         phone.setAssignedDate(null);
         Phone saved = phoneRepository.save(phone);
+        publishChange(InventoryChangeEvent.Action.UNASSIGN, saved.getId(), before, ItemState.of(saved));
 
         // Record unassignment history with remaining value
         assignmentHistoryService.record(
@@ -243,9 +255,11 @@ public class PhoneService {
                 .orElseThrow(() -> new RuntimeException("New user not found"));
 
         Long oldUserId = phone.getAssignedTo().getId();
+        ItemState before = ItemState.of(phone);
         phone.setAssignedTo(newUser);
         phone.setAssignedDate(LocalDate.now());
         Phone saved = phoneRepository.save(phone);
+        publishChange(InventoryChangeEvent.Action.TRANSFER, saved.getId(), before, ItemState.of(saved));
 
         // Record transfer history
         assignmentHistoryService.record(
@@ -258,4 +272,9 @@ public class PhoneService {
 
         return new PhoneDto(saved);
     }
-}
\ No newline at end of file
+
+    private void publishChange(InventoryChangeEvent.Action action, Long phoneId, ItemState before, ItemState after) {
+        eventPublisher.publishEvent(new InventoryChangeEvent(
+                InventoryChangeEvent.ItemType.PHONE, action, phoneId, before, after));
+    }
+}
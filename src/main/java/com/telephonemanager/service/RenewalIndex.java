@@ -0,0 +1,351 @@
+package com.telephonemanager.service;
+
+import com.telephonemanager.entity.Attribution;
+import com.telephonemanager.entity.Phone;
+import com.telephonemanager.entity.User;
+import com.telephonemanager.event.InventoryChangeEvent;
+import com.telephonemanager.event.InventoryChangeEvent.ItemState;
+import com.telephonemanager.repository.AttributionRepository;
+import com.telephonemanager.repository.PhoneRepository;
+import com.telephonemanager.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Phone renewal due dates of every ACTIVE attribution, ordered by due date, with the
+ * labels shown in renewal reminders precomputed. Maintained from committed attribution
+ * changes (and phone or user edits that alter a label); a periodic rebuild from the
+ * database corrects any drift. Reminder windows are served as a head-set view, so only
+ * attributions inside the window are visited.
+ * <p>
+ * Database reads never happen under the update lock. A listener loads the changed
+ * attribution, phone or user first and takes the lock only to apply the result; a
+ * rebuild scans without it, and changes committed meanwhile are buffered and replayed
+ * onto the new index before it replaces the old one. Two loads racing for the same item
+ * can apply in either order; the next change to it or the periodic rebuild settles it.
+ * <p>
+ * Until the first rebuild succeeds, reads get an empty index while a background rebuild
+ * is retried with exponential backoff, never on the request thread.
+ */
+@Service
+public class RenewalIndex {
+    public static final int RENEWAL_CYCLE_YEARS = 2;
+
+    private static final long INITIAL_RETRY_MILLIS = 1_000;
+    private static final long MAX_RETRY_MILLIS = 300_000;
+
+    private static final Comparator<Renewal> BY_DUE_DATE =
+            Comparator.comparing(Renewal::dueDate).thenComparingLong(Renewal::attributionId);
+
+    @Autowired
+    private AttributionRepository attributionRepository;
+    @Autowired
+    private PhoneRepository phoneRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Guards index, initialized and pending; held only for in-memory updates
+    private final Object updateLock = new Object();
+    // One rebuild at a time
+    private final Object rebuildLock = new Object();
+
+    private volatile Index index = new Index();
+    private volatile boolean initialized = false;
+    // Changes committed during a rebuild, replayed onto the new index; null when none is running
+    private List<Consumer<Index>> pending;
+
+    private final ExecutorService rebuildExecutor;
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    // Earliest System.nanoTime() at which a failed rebuild may be retried from the read path
+    private volatile long retryAtNanos = System.nanoTime();
+    private int consecutiveFailures = 0;
+
+    public RenewalIndex(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "renewal-index-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Renewal reminder for one active attribution. */
+    public record Renewal(long attributionId, LocalDate dueDate, Long userId, String userName,
+            String department, Long phoneId, String phoneLabel) {
+    }
+
+    /** Active attributions due on or before the given date, earliest first; a live read-only view. */
+    public NavigableSet<Renewal> dueBy(LocalDate horizon) {
+        if (!initialized) {
+            requestRebuild();
+        }
+        Renewal upperBound = new Renewal(Long.MAX_VALUE, horizon, null, null, null, null, null);
+        return Collections.unmodifiableNavigableSet(index.byDueDate.headSet(upperBound, true));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.renewal-index.rebuild-interval:3600000}",
+            initialDelayString = "${notifications.renewal-index.rebuild-interval:3600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (updateLock) {
+                pending = new ArrayList<>();
+            }
+            try {
+                Index rebuilt = new Index();
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<Object[]> rows = attributionRepository.streamRenewalRows(Attribution.Status.ACTIVE)) {
+                        rows.forEach(row -> rebuilt.put(fromRow(row)));
+                    }
+                });
+                // Buffered changes are already loaded, so the replay is in-memory only
+                synchronized (updateLock) {
+                    pending.forEach(change -> change.accept(rebuilt));
+                    index = rebuilt;
+                    initialized = true;
+                    pending = null;
+                }
+                consecutiveFailures = 0;
+                System.out.println("Renewal index rebuilt: " + rebuilt.byAttribution.size() + " active attributions");
+            } catch (Exception e) {
+                synchronized (updateLock) {
+                    pending = null;
+                }
+                consecutiveFailures++;
+                long retryMillis = Math.min(MAX_RETRY_MILLIS,
+                        INITIAL_RETRY_MILLIS << Math.min(consecutiveFailures - 1, 20));
+                retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryMillis);
+                System.err.println("Renewal index rebuild failed, retry in " + retryMillis + "ms: " + e.getMessage());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        Consumer<Index> change;
+        try {
+            change = load(event);
+        } catch (Exception e) {
+            System.err.println("Renewal index update failed for " + event.getItemType() + " "
+                    + event.getItemId() + ": " + e.getMessage());
+            return;
+        }
+        if (change == null) {
+            return;
+        }
+        synchronized (updateLock) {
+            if (pending != null) {
+                pending.add(change);
+            } else if (initialized) {
+                change.accept(index);
+            }
+        }
+    }
+
+    /**
+     * Reads what the event changed and returns the in-memory update to apply, or null if
+     * the index is unaffected. Runs without the update lock.
+     */
+    private Consumer<Index> load(InventoryChangeEvent event) {
+        ItemState after = event.getAfter();
+        Long id = event.getItemId();
+        switch (event.getItemType()) {
+            case ATTRIBUTION:
+                if (after == null || after.<Attribution.Status>getStatus() != Attribution.Status.ACTIVE) {
+                    return target -> target.remove(id);
+                }
+                Attribution attribution = attributionRepository.findById(id).orElse(null);
+                if (attribution == null || attribution.getStatus() != Attribution.Status.ACTIVE) {
+                    return target -> target.remove(id);
+                }
+                Renewal renewal = fromEntity(attribution);
+                return target -> target.put(renewal);
+            case PHONE:
+                if (event.getAction() != InventoryChangeEvent.Action.UPDATE || after == null) {
+                    return null;
+                }
+                // One phone read relabels all of its attributions; due dates are unaffected
+                Phone phone = phoneRepository.findById(id).orElse(null);
+                if (phone == null) {
+                    return null;
+                }
+                String label = phoneLabel(phone.getBrand(), phone.getModel());
+                return target -> target.ofPhone(id).forEach(previous -> target.put(new Renewal(
+                        previous.attributionId(), previous.dueDate(), previous.userId(),
+                        previous.userName(), previous.department(), previous.phoneId(), label)));
+            case USER:
+                if (event.getAction() != InventoryChangeEvent.Action.UPDATE || after == null) {
+                    return null;
+                }
+                User user = userRepository.findById(id).orElse(null);
+                if (user == null) {
+                    return null;
+                }
+                String name = user.getName();
+                String department = user.getDepartment();
+                return target -> target.ofUser(id).forEach(previous -> target.put(new Renewal(
+                        previous.attributionId(), previous.dueDate(), previous.userId(),
+                        name, department, previous.phoneId(), previous.phoneLabel())));
+            default:
+                return null;
+        }
+    }
+
+    // At most one queued rebuild, and none before the backoff of the last failure has passed
+    private void requestRebuild() {
+        if (System.nanoTime() - retryAtNanos < 0 || !rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuildQueued.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rebuildQueued.set(false);
+        }
+    }
+
+    private static Renewal fromEntity(Attribution attribution) {
+        User user = attribution.getUser();
+        Phone phone = attribution.getPhone();
+        return new Renewal(attribution.getId(),
+                dueDate(attribution.getAssignmentDate(), attribution.getCreatedAt()),
+                user != null ? user.getId() : null,
+                user != null ? user.getName() : null,
+                user != null ? user.getDepartment() : null,
+                phone != null ? phone.getId() : null,
+                phone != null ? phoneLabel(phone.getBrand(), phone.getModel()) : null);
+    }
+
+    // Columns as selected by AttributionRepository.streamRenewalRows
+    private static Renewal fromRow(Object[] row) {
+        Long phoneId = (Long) row[6];
+        return new Renewal((Long) row[0],
+                dueDate((LocalDate) row[1], (LocalDateTime) row[2]),
+                (Long) row[3], (String) row[4], (String) row[5],
+                phoneId,
+                phoneId != null ? phoneLabel((String) row[7], (String) row[8]) : null);
+    }
+
+    private static LocalDate dueDate(LocalDate assignmentDate, LocalDateTime createdAt) {
+        LocalDate start = assignmentDate != null ? assignmentDate
+                : (createdAt != null ? createdAt.toLocalDate() : LocalDate.now());
+        return start.plusYears(RENEWAL_CYCLE_YEARS);
+    }
+
+    private static String phoneLabel(String brand, String model) {
+        return ((brand != null ? brand : "") + " " + (model != null ? model : "")).trim();
+    }
+
+    /**
+     * Date-ordered set plus an id lookup so an attribution's previous entry can be found
+     * on change, and per-user and per-phone id sets so a label edit visits only the
+     * attributions it affects.
+     */
+    private static class Index {
+        final ConcurrentSkipListSet<Renewal> byDueDate = new ConcurrentSkipListSet<>(BY_DUE_DATE);
+        final Map<Long, Renewal> byAttribution = new ConcurrentHashMap<>();
+        final Map<Long, Set<Long>> byUser = new ConcurrentHashMap<>();
+        final Map<Long, Set<Long>> byPhone = new ConcurrentHashMap<>();
+
+        void put(Renewal renewal) {
+            Renewal previous = byAttribution.put(renewal.attributionId(), renewal);
+            if (previous != null) {
+                byDueDate.remove(previous);
+                unlink(byUser, previous.userId(), previous.attributionId());
+                unlink(byPhone, previous.phoneId(), previous.attributionId());
+            }
+            byDueDate.add(renewal);
+            link(byUser, renewal.userId(), renewal.attributionId());
+            link(byPhone, renewal.phoneId(), renewal.attributionId());
+        }
+
+        void remove(Long attributionId) {
+            Renewal previous = byAttribution.remove(attributionId);
+            if (previous != null) {
+                byDueDate.remove(previous);
+                unlink(byUser, previous.userId(), attributionId);
+                unlink(byPhone, previous.phoneId(), attributionId);
+            }
+        }
+
+        List<Renewal> ofUser(Long userId) {
+            return lookup(byUser.get(userId));
+        }
+
+        List<Renewal> ofPhone(Long phoneId) {
+            return lookup(byPhone.get(phoneId));
+        }
+
+        private List<Renewal> lookup(Set<Long> ids) {
+            List<Renewal> renewals = new ArrayList<>();
+            if (ids != null) {
+                for (Long id : ids) {
+                    Renewal renewal = byAttribution.get(id);
+                    if (renewal != null) {
+                        renewals.add(renewal);
+                    }
+                }
+            }
+            return renewals;
+        }
+
+        private static void link(Map<Long, Set<Long>> ids, Long key, long attributionId) {
+            if (key != null) {
+                ids.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(attributionId);
+            }
+        }
+
+        private static void unlink(Map<Long, Set<Long>> ids, Long key, long attributionId) {
+            if (key != null) {
+                ids.computeIfPresent(key, (k, set) -> set.remove(attributionId) && set.isEmpty() ? null : set);
+            }
+        }
+    }
+}
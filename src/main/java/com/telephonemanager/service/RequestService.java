@@ -30,6 +30,9 @@ public class RequestService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ExportTombstoneService exportTombstoneService;
+
     public Page<RequestDto> getRequests(int page, int limit, Status status, Type type, Priority priority, Long userId, Long assignedToId, String search) {
         Pageable pageable = PageRequest.of(page - 1, limit);
         Page<Request> requests = requestRepository.findWithFilters(userId, status, type, priority, assignedToId, search, pageable);
@@ -108,6 +111,7 @@ public class RequestService {
             throw new RuntimeException("Request not found");
         }
         requestRepository.deleteById(id);
+        exportTombstoneService.record(ExportService.REQUESTS, id);
     }
 
     public RequestDto addComment(Long id, String comment) {
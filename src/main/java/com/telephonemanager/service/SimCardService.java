@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -13,6 +14,8 @@ import com.telephonemanager.dto.SimCardDto;
 import com.telephonemanager.entity.AssignmentHistory;
 import com.telephonemanager.entity.SimCard;
 import com.telephonemanager.entity.User;
+import com.telephonemanager.event.InventoryChangeEvent;
+import com.telephonemanager.event.InventoryChangeEvent.ItemState;
 import com.telephonemanager.repository.SimCardRepository;
 import com.telephonemanager.repository.UserRepository;
 
@@ -24,6 +27,8 @@ public class SimCardService {
     private UserRepository userRepository;
     @Autowired
     private AssignmentHistoryService assignmentHistoryService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public Page<SimCardDto> getSimCards(int page, int limit, SimCard.Status status, String number, String iccid) {
         Pageable pageable = PageRequest.of(page - 1, limit);
@@ -71,6 +76,7 @@ public class SimCardService {
             );
         }
         SimCard saved = simCardRepository.save(sim);
+        publishChange(InventoryChangeEvent.Action.CREATE, saved.getId(), null, ItemState.of(saved));
         // If assigned, update the itemId in history
         if (dto.getAssignedToId() != null) {
             assignmentHistoryService.record(
@@ -89,6 +95,7 @@ public class SimCardService {
         SimCard sim = simCardRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("SimCard not found"));
         Long oldUserId = sim.getAssignedTo() != null ? sim.getAssignedTo().getId() : null;
+        ItemState before = ItemState.of(sim);
         Long newUserId = dto.getAssignedToId();
         if (!sim.getIccid().equals(dto.getIccid()) && simCardRepository.findByIccid(dto.getIccid()).isPresent()) {
             throw new RuntimeException("ICCID already exists");
@@ -119,6 +126,7 @@ public class SimCardService {
             sim.setAssignedDate(null);
         }
         SimCard updated = simCardRepository.save(sim);
+        publishChange(InventoryChangeEvent.Action.UPDATE, updated.getId(), before, ItemState.of(updated));
         // Record assignment history
         if (oldUserId == null && newUserId != null) {
             assignmentHistoryService.record(
@@ -152,10 +160,10 @@ public class SimCardService {
     }
 
     public void deleteSimCard(Long id) {
-        if (!simCardRepository.existsById(id)) {
-            throw new RuntimeException("SimCard not found");
-        }
-        simCardRepository.deleteById(id);
+        SimCard sim = simCardRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("SimCard not found"));
+        simCardRepository.delete(sim);
+        publishChange(InventoryChangeEvent.Action.DELETE, id, ItemState.of(sim), null);
     }
 
     public Long getUserIdByEmail(String email) {
@@ -173,10 +181,12 @@ public class SimCardService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
+        ItemState before = ItemState.of(sim);
         sim.setAssignedTo(user);
         sim.setAssignedDate(LocalDate.now());
         sim.setStatus(SimCard.Status.ASSIGNED);
         SimCard saved = simCardRepository.save(sim);
+        publishChange(InventoryChangeEvent.Action.ASSIGN, saved.getId(), before, ItemState.of(saved));
         
         // Record assignment history
         assignmentHistoryService.record(
@@ -200,10 +210,12 @@ public class SimCardService {
         }
         
         Long oldUserId = sim.getAssignedTo().getId();
+        ItemState before = ItemState.of(sim);
         sim.setAssignedTo(null);
         sim.setAssignedDate(null);
         sim.setStatus(SimCard.Status.AVAILABLE);
         SimCard saved = simCardRepository.save(sim);
+        publishChange(InventoryChangeEvent.Action.UNASSIGN, saved.getId(), before, ItemState.of(saved));
         
         // Record unassignment history
         assignmentHistoryService.record(
@@ -230,10 +242,12 @@ public class SimCardService {
             .orElseThrow(() -> new RuntimeException("New user not found"));
         
         Long oldUserId = sim.getAssignedTo().getId();
+        ItemState before = ItemState.of(sim);
         sim.setAssignedTo(newUser);
         sim.setAssignedDate(LocalDate.now());
         sim.setStatus(SimCard.Status.ASSIGNED);
         SimCard saved = simCardRepository.save(sim);
+        publishChange(InventoryChangeEvent.Action.TRANSFER, saved.getId(), before, ItemState.of(saved));
         
         // Record transfer history
         assignmentHistoryService.record(
@@ -247,4 +261,9 @@ public class SimCardService {
         
         return new SimCardDto(saved);
     }
-} 
\ No newline at end of file
+
+    private void publishChange(InventoryChangeEvent.Action action, Long simCardId, ItemState before, ItemState after) {
+        eventPublisher.publishEvent(new InventoryChangeEvent(
+            InventoryChangeEvent.ItemType.SIM, action, simCardId, before, after));
+    }
+}
@@ -2,8 +2,12 @@ package com.telephonemanager.service;
 
 import com.telephonemanager.dto.UserDto;
 import com.telephonemanager.entity.User;
+import com.telephonemanager.event.InventoryChangeEvent;
+import com.telephonemanager.event.InventoryChangeEvent.ItemState;
 import com.telephonemanager.repository.UserRepository;
+import com.telephonemanager.security.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,6 +26,12 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
     public Page<UserDto> getUsers(int page, int limit, String search, String department, 
                                  User.UserStatus status, User.UserRole role) {
         Pageable pageable = PageRequest.of(page - 1, limit);
@@ -56,6 +66,7 @@ public class UserService {
         user.setAvatar(userDto.getAvatar());
 
         User savedUser = userRepository.save(user);
+        publishChange(InventoryChangeEvent.Action.CREATE, savedUser.getId(), null, ItemState.of(savedUser));
         return new UserDto(savedUser);
     }
 
@@ -68,6 +79,8 @@ public class UserService {
             throw new RuntimeException("Email already exists");
         }
 
+        ItemState before = ItemState.of(user);
+        String previousEmail = user.getEmail();
         user.setName(userDto.getName());
         user.setEmail(userDto.getEmail());
         
@@ -86,14 +99,19 @@ public class UserService {
         user.setAvatar(userDto.getAvatar());
 
         User updatedUser = userRepository.save(user);
+        // Role, status or email may have changed; authentication must see the saved state
+        principalCache.invalidate(previousEmail);
+        principalCache.invalidate(updatedUser.getEmail());
+        publishChange(InventoryChangeEvent.Action.UPDATE, updatedUser.getId(), before, ItemState.of(updatedUser));
         return new UserDto(updatedUser);
     }
 
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found");
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        userRepository.delete(user);
+        principalCache.invalidate(user.getEmail());
+        publishChange(InventoryChangeEvent.Action.DELETE, id, ItemState.of(user), null);
     }
 
     public Page<UserDto> getUsersByDepartment(String department, int page, int limit) {
@@ -121,4 +139,9 @@ public class UserService {
     public long getUserCountByRole(User.UserRole role) {
         return userRepository.countByRole(role);
     }
-} 
\ No newline at end of file
+
+    private void publishChange(InventoryChangeEvent.Action action, Long userId, ItemState before, ItemState after) {
+        eventPublisher.publishEvent(new InventoryChangeEvent(
+                InventoryChangeEvent.ItemType.USER, action, userId, before, after));
+    }
+}
@@ -1,9 +1,14 @@
 package com.telephonemanager.utils;
 
 import com.opencsv.CSVWriter;
+import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
@@ -11,11 +16,7 @@ public class CsvExportUtil {
     public static ByteArrayInputStream writeToCsv(List<String[]> rows) {
         try (ByteArrayOutputStream out = new ByteArrayOutputStream();
              OutputStreamWriter writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
-             CSVWriter csvWriter = new CSVWriter(writer,
-                     CSVWriter.DEFAULT_SEPARATOR,
-                     CSVWriter.DEFAULT_QUOTE_CHARACTER,
-                     CSVWriter.DEFAULT_ESCAPE_CHARACTER,
-                     CSVWriter.DEFAULT_LINE_END)) {
+             CSVWriter csvWriter = newCsvWriter(writer)) {
             for (String[] row : rows) {
                 csvWriter.writeNext(row);
             }
@@ -25,4 +26,37 @@ public class CsvExportUtil {
             throw new RuntimeException("Failed to generate CSV", e);
         }
     }
-} 
\ No newline at end of file
+
+    /** Streams CSV rows straight to the given output stream. */
+    public static TabularWriter openWriter(OutputStream out) {
+        CSVWriter csvWriter = newCsvWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        return new TabularWriter() {
+            @Override
+            public void writeRow(String[] row) {
+                csvWriter.writeNext(row);
+            }
+
+            @Override
+            public void flush() {
+                try {
+                    csvWriter.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to write CSV", e);
+                }
+            }
+
+            @Override
+            public void close() {
+                flush();
+            }
+        };
+    }
+
+    private static CSVWriter newCsvWriter(Writer writer) {
+        return new CSVWriter(writer,
+                CSVWriter.DEFAULT_SEPARATOR,
+                CSVWriter.DEFAULT_QUOTE_CHARACTER,
+                CSVWriter.DEFAULT_ESCAPE_CHARACTER,
+                CSVWriter.DEFAULT_LINE_END);
+    }
+}
@@ -1,53 +1,110 @@
 package com.telephonemanager.utils;
 
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.List;
 
 public class ExcelExportUtil {
+    // Rows kept in memory; older rows are flushed to a compressed temp file
+    private static final int ROW_WINDOW = 100;
+    // Column widths are measured on the first rows only instead of autoSizeColumn
+    private static final int WIDTH_SAMPLE_ROWS = 500;
+    private static final int MAX_COLUMN_CHARS = 60;
+
     public static ByteArrayInputStream writeToExcel(List<String[]> rows) {
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Sheet sheet = workbook.createSheet("Export");
-
-            // Header style
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.BLUE.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // Row style (alternating)
-            CellStyle evenRowStyle = workbook.createCellStyle();
-            evenRowStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            evenRowStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            for (int i = 0; i < rows.size(); i++) {
-                Row row = sheet.createRow(i);
-                String[] data = rows.get(i);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TabularWriter writer = openWriter(out)) {
+            for (String[] row : rows) {
+                writer.writeRow(row);
+            }
+        }
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    /**
+     * Streams rows into an xlsx workbook using a sliding row window, so memory stays
+     * flat regardless of row count. The first row is styled as the header and the
+     * workbook is written to the output stream on close.
+     */
+    public static TabularWriter openWriter(OutputStream out) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        SXSSFSheet sheet = workbook.createSheet("Export");
+
+        // Header style
+        CellStyle headerStyle = workbook.createCellStyle();
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerFont.setColor(IndexedColors.WHITE.getIndex());
+        headerStyle.setFont(headerFont);
+        headerStyle.setFillForegroundColor(IndexedColors.BLUE.getIndex());
+        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+        // Row style (alternating)
+        CellStyle evenRowStyle = workbook.createCellStyle();
+        evenRowStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+        evenRowStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+        return new TabularWriter() {
+            private int rowIndex = 0;
+            private int[] columnChars = new int[0];
+
+            @Override
+            public void writeRow(String[] data) {
+                Row row = sheet.createRow(rowIndex);
+                CellStyle style = rowIndex == 0 ? headerStyle : (rowIndex % 2 == 0 ? evenRowStyle : null);
                 for (int j = 0; j < data.length; j++) {
                     Cell cell = row.createCell(j);
                     cell.setCellValue(data[j]);
-                    if (i == 0) {
-                        cell.setCellStyle(headerStyle);
-                    } else if (i % 2 == 0) {
-                        cell.setCellStyle(evenRowStyle);
+                    if (style != null) {
+                        cell.setCellStyle(style);
                     }
                 }
+                if (rowIndex <= WIDTH_SAMPLE_ROWS) {
+                    sampleWidths(data);
+                }
+                rowIndex++;
             }
-            // Auto-size columns
-            if (!rows.isEmpty()) {
-                for (int i = 0; i < rows.get(0).length; i++) {
-                    sheet.autoSizeColumn(i);
+
+            private void sampleWidths(String[] data) {
+                if (columnChars.length < data.length) {
+                    columnChars = Arrays.copyOf(columnChars, data.length);
+                }
+                for (int j = 0; j < data.length; j++) {
+                    int chars = data[j] != null ? data[j].length() : 0;
+                    columnChars[j] = Math.max(columnChars[j], Math.min(chars, MAX_COLUMN_CHARS));
                 }
             }
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to generate Excel file", e);
-        }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+                try {
+                    for (int j = 0; j < columnChars.length; j++) {
+                        sheet.setColumnWidth(j, (columnChars[j] + 2) * 256);
+                    }
+                    workbook.write(out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to generate Excel file", e);
+                } finally {
+                    workbook.dispose();
+                    try {
+                        workbook.close();
+                    } catch (IOException e) {
+                        System.err.println("Failed to close Excel workbook: " + e.getMessage());
+                    }
+                }
+            }
+        };
     }
-} 
\ No newline at end of file
+}
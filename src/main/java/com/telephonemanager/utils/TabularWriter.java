@@ -0,0 +1,24 @@
+package com.telephonemanager.utils;
+
+import java.io.OutputStream;
+
+/**
+ * Row-at-a-time writer for exports. close() finishes the document but leaves the
+ * underlying output stream open for the caller (e.g. the HTTP response) to close.
+ */
+public interface TabularWriter extends AutoCloseable {
+    void writeRow(String[] row);
+
+    /** Pushes buffered output to the underlying stream, where the format allows it. */
+    void flush();
+
+    @Override
+    void close();
+
+    static TabularWriter open(String format, OutputStream out) {
+        if ("excel".equalsIgnoreCase(format)) {
+            return ExcelExportUtil.openWriter(out);
+        }
+        return CsvExportUtil.openWriter(out);
+    }
+}